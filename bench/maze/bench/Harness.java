@@ -0,0 +1,89 @@
+package maze.bench;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal JMH-style measurement loop: timed warmup iterations, then timed
+ * measurement iterations, each running the operation in calibrated batches so
+ * the clock is not read on every call. Results are folded into a volatile sink
+ * so the JIT cannot discard the work.
+ */
+final class Harness {
+
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int MEASURE_ITERATIONS = 5;
+
+	/** Target wall time per iteration. */
+	private static final long ITERATION_NANOS = 200_000_000L;
+
+	/** A batch is grown until it takes at least this long. */
+	private static final long MIN_BATCH_NANOS = 20_000L;
+
+	/** Consumes benchmark results; never read. */
+	static volatile long sink;
+
+	private Harness() {
+	}
+
+	/** Prints the column header for {@link #run} results. */
+	static void printHeader() {
+		System.out.printf(Locale.ROOT, "%-34s %-28s %14s %10s%n", "Benchmark", "Params", "ns/op", "+/-");
+	}
+
+	/**
+	 * Measures one operation and prints the average time per call.
+	 *
+	 * @param name   benchmark name
+	 * @param params parameter description shown next to the name
+	 * @param op     the operation; its return value is consumed
+	 */
+	static void run(String name, String params, LongSupplier op) {
+		int batch = calibrate(op);
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			iteration(op, batch);
+
+		double[] samples = new double[MEASURE_ITERATIONS];
+		double mean = 0;
+		for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+			samples[i] = iteration(op, batch);
+			mean += samples[i];
+		}
+		mean /= MEASURE_ITERATIONS;
+		double var = 0;
+		for (double s : samples)
+			var += (s - mean) * (s - mean);
+		double err = Math.sqrt(var / (MEASURE_ITERATIONS - 1));
+
+		System.out.printf(Locale.ROOT, "%-34s %-28s %14.1f %10.1f%n", name, params, mean, err);
+	}
+
+	/** Doubles the batch size until one batch takes {@link #MIN_BATCH_NANOS}. */
+	private static int calibrate(LongSupplier op) {
+		int batch = 1;
+		while (batch < (1 << 24)) {
+			long start = System.nanoTime();
+			long acc = 0;
+			for (int i = 0; i < batch; i++)
+				acc += op.getAsLong();
+			sink += acc;
+			if (System.nanoTime() - start >= MIN_BATCH_NANOS)
+				break;
+			batch *= 2;
+		}
+		return batch;
+	}
+
+	/** Runs whole batches for about {@link #ITERATION_NANOS}; returns ns per call. */
+	private static double iteration(LongSupplier op, int batch) {
+		long start = System.nanoTime(), deadline = start + ITERATION_NANOS, calls = 0, acc = 0, now;
+		do {
+			for (int i = 0; i < batch; i++)
+				acc += op.getAsLong();
+			calls += batch;
+			now = System.nanoTime();
+		} while (now < deadline);
+		sink += acc;
+		return (double) (now - start) / calls;
+	}
+}
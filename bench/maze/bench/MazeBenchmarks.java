@@ -0,0 +1,221 @@
+package maze.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import maze.GameWorld;
+import maze.MazeGenerator;
+import maze.MazeMap;
+import maze.Player;
+import maze.PlayerSnapshot;
+import maze.SpriteLoader;
+import maze.Zombie;
+import maze.ZombieUpdater;
+
+/**
+ * Baseline benchmarks for the game's hot paths, on the built-in levels and on
+ * generated mazes of configurable size and zombie count.
+ *
+ * <p>
+ * Usage:
+ * {@code java -Djava.awt.headless=true maze.bench.MazeBenchmarks [--filter=regex] [--sizes=101,1001] [--zombies=100,1000,10000]}
+ */
+public class MazeBenchmarks {
+
+	private static final long SEED = 20_241_018L;
+
+	/** Number of precomputed query pairs cycled through by the path benchmarks. */
+	private static final int QUERIES = 1024;
+
+	private static Pattern filter = Pattern.compile(".*");
+
+	/** Runs the suite. */
+	public static void main(String[] args) {
+		int[] sizes = { 101, 1001 };
+		int[] zombieCounts = { 100, 1000, 10000 };
+		for (String arg : args) {
+			if (arg.startsWith("--filter="))
+				filter = Pattern.compile(arg.substring("--filter=".length()));
+			else if (arg.startsWith("--sizes="))
+				sizes = parseInts(arg.substring("--sizes=".length()));
+			else if (arg.startsWith("--zombies="))
+				zombieCounts = parseInts(arg.substring("--zombies=".length()));
+			else
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+		}
+
+		Map<String, MazeMap> maps = new LinkedHashMap<>();
+		maps.put("level=1", new MazeMap(1));
+		maps.put("level=2", new MazeMap(2));
+		for (int size : sizes)
+			maps.put("size=" + size, new MazeMap(MazeGenerator.generate(size, size, 0, 0, SEED), 0));
+
+		Harness.printHeader();
+		for (Map.Entry<String, MazeMap> e : maps.entrySet()) {
+			MazeMap map = e.getValue();
+			int[] pairs = randomFloorPairs(map);
+			bench("flowField.setGoal", e.getKey(), flowFieldRebuild(map, pairs));
+			bench("pathFinder.findPath", e.getKey(), pathFinder(map, pairs));
+			bench("corridorGraph.findPath", e.getKey(), corridorGraph(map, pairs));
+			bench("hierarchicalPlanner.planFirstLeg", e.getKey(), hierarchicalPlanner(map, pairs));
+			bench("lineOfSight", e.getKey(), lineOfSight(map, pairs));
+			bench("mazeMap.draw", e.getKey(), draw(map));
+		}
+		bench("player.update", "level=1", playerUpdate());
+		for (int size : sizes) {
+			for (int zombies : zombieCounts) {
+				String params = "size=" + size + " zombies=" + zombies;
+				bench("zombies.update.roam", params, zombieUpdate(size, zombies, false));
+				bench("zombies.update.hunt", params, zombieUpdate(size, zombies, true));
+				bench("world.update", params + " gems=" + zombies, worldUpdate(size, zombies));
+			}
+		}
+	}
+
+	private static void bench(String name, String params, LongSupplier op) {
+		if (filter.matcher(name).find())
+			Harness.run(name, params, op);
+	}
+
+	/** Alternates the hunt goal between two tiles so every call rebuilds the field. */
+	private static LongSupplier flowFieldRebuild(MazeMap map, int[] pairs) {
+		int[] i = { 0 };
+		return () -> {
+			int q = (i[0]++ & (QUERIES - 1)) * 4;
+			map.getFlowField().setGoal(pairs[q], pairs[q + 1]);
+			return map.getFlowField().getDistance(pairs[q + 2], pairs[q + 3]);
+		};
+	}
+
+	private static LongSupplier pathFinder(MazeMap map, int[] pairs) {
+		int[] i = { 0 };
+		return () -> {
+			int q = (i[0]++ & (QUERIES - 1)) * 4;
+			return map.getPathFinder().findPath(pairs[q], pairs[q + 1], pairs[q + 2], pairs[q + 3]);
+		};
+	}
+
+	private static LongSupplier corridorGraph(MazeMap map, int[] pairs) {
+		int[] i = { 0 };
+		return () -> {
+			int q = (i[0]++ & (QUERIES - 1)) * 4;
+			return map.getCorridorGraph().findPath(pairs[q], pairs[q + 1], pairs[q + 2], pairs[q + 3]);
+		};
+	}
+
+	private static LongSupplier hierarchicalPlanner(MazeMap map, int[] pairs) {
+		int[] i = { 0 };
+		return () -> {
+			int q = (i[0]++ & (QUERIES - 1)) * 4;
+			return map.getHierarchicalPlanner().planFirstLeg(pairs[q], pairs[q + 1], pairs[q + 2], pairs[q + 3]);
+		};
+	}
+
+	/** One row test and one column test per call, through the sight spans. */
+	private static LongSupplier lineOfSight(MazeMap map, int[] pairs) {
+		int[] i = { 0 };
+		return () -> {
+			int q = (i[0]++ & (QUERIES - 1)) * 4;
+			boolean row = map.isRowClear(pairs[q], pairs[q + 1], pairs[q + 3]);
+			boolean col = map.isColumnClear(pairs[q + 1], pairs[q], pairs[q + 2]);
+			return (row ? 1 : 0) + (col ? 2 : 0);
+		};
+	}
+
+	/** Renders the whole map into an offscreen 1024x768 image. */
+	private static LongSupplier draw(MazeMap map) {
+		SpriteLoader.awaitAtlas();
+		BufferedImage target = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = target.createGraphics();
+		return () -> {
+			map.draw(g);
+			return target.getRGB(5, 5);
+		};
+	}
+
+	/** Walks the player back and forth along level 1's top corridor. */
+	private static LongSupplier playerUpdate() {
+		MazeMap map = new MazeMap(1);
+		Player player = new Player(MazeMap.TILE_SIZE, MazeMap.TILE_SIZE);
+		int[] i = { 0 };
+		return () -> {
+			boolean right = (i[0]++ & 64) == 0;
+			player.setInput(false, false, !right, right, false);
+			player.update(map);
+			return player.getPixelX();
+		};
+	}
+
+	/** Updates a generated level's zombies, roaming or hunting a fixed player tile. */
+	private static LongSupplier zombieUpdate(int size, int count, boolean hunt) {
+		GameWorld world = new GameWorld(SEED);
+		world.loadMap(new MazeMap(MazeGenerator.generate(size, size, count, 0, SEED), 0));
+		MazeMap map = world.getMap();
+		List<Zombie> zombies = new ArrayList<>(world.getZombies());
+		PlayerSnapshot player = world.getPlayer().snapshot();
+		if (hunt) {
+			map.getFlowField().setGoal(player.row(), player.col());
+			for (Zombie z : zombies)
+				z.activateHuntMode();
+		}
+		ZombieUpdater updater = new ZombieUpdater();
+		return () -> {
+			updater.update(zombies, map, player);
+			return zombies.get(0).getPixelX();
+		};
+	}
+
+	/**
+	 * Full world ticks including the gem and zombie collision checks. The world is
+	 * rebuilt from the same layout whenever the player dies.
+	 */
+	private static LongSupplier worldUpdate(int size, int count) {
+		char[][] layout = MazeGenerator.generate(size, size, count, count, SEED);
+		GameWorld world = new GameWorld(SEED);
+		world.loadMap(new MazeMap(copy(layout), 0));
+		return () -> {
+			world.update();
+			if (world.getState() != GameWorld.State.PLAYING)
+				world.loadMap(new MazeMap(copy(layout), 0));
+			return world.getTick();
+		};
+	}
+
+	/** Returns {@link #QUERIES} random (row, col, row, col) floor-tile pairs. */
+	private static int[] randomFloorPairs(MazeMap map) {
+		Random rand = new Random(SEED);
+		int[] pairs = new int[QUERIES * 4];
+		for (int i = 0; i < pairs.length; i += 2) {
+			int r, c;
+			do {
+				r = rand.nextInt(map.getRows());
+				c = rand.nextInt(map.getCols());
+			} while (!map.isWalkable(r, c));
+			pairs[i] = r;
+			pairs[i + 1] = c;
+		}
+		return pairs;
+	}
+
+	private static char[][] copy(char[][] layout) {
+		char[][] out = new char[layout.length][];
+		for (int r = 0; r < layout.length; r++)
+			out[r] = layout[r].clone();
+		return out;
+	}
+
+	private static int[] parseInts(String csv) {
+		String[] parts = csv.split(",");
+		int[] out = new int[parts.length];
+		for (int i = 0; i < parts.length; i++)
+			out[i] = Integer.parseInt(parts[i].trim());
+		return out;
+	}
+}
@@ -0,0 +1,140 @@
+package maze;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single binary file holding every sprite and tile already scaled to tile size,
+ * so startup can skip decoding the PNGs.
+ *
+ * <p>
+ * Layout, in big-endian ints: magic, version, tile size, image count, the width
+ * and height of each image (zero for an asset whose file was missing), then the
+ * pixels of each image row by row as non-premultiplied ARGB. Reading maps the
+ * file and copies each image's pixels straight into the array backing a new
+ * image, with no decoding or colour conversion.
+ *
+ * <p>
+ * Build the pack from the directory holding the PNGs with
+ * {@code java -Djava.awt.headless=true maze.AssetPack [file]}; the game picks it
+ * up from the working directory as {@value #DEFAULT_FILE}.
+ */
+public class AssetPack {
+
+	/** Pack file the game looks for in the working directory. */
+	public static final String DEFAULT_FILE = "assets.pack";
+
+	/** {@code "MZPK"}. */
+	private static final int MAGIC = 0x4D5A504B;
+	private static final int VERSION = 1;
+	private static final int HEADER_INTS = 4;
+
+	private static final int[] ARGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 };
+
+	/** Builds the pack from the PNGs in the working directory. */
+	public static void main(String[] args) throws IOException {
+		Path file = Path.of(args.length > 0 ? args[0] : DEFAULT_FILE);
+		BufferedImage[] images = SpriteLoader.loadAssetImages(MazeMap.TILE_SIZE);
+		write(file, images, MazeMap.TILE_SIZE);
+		int missing = 0;
+		for (BufferedImage img : images)
+			if (img == null)
+				missing++;
+		System.out.printf("wrote %d images to %s (%d bytes), %d missing%n", images.length, file, Files.size(file),
+				missing);
+	}
+
+	/**
+	 * Writes images to a pack file, replacing it if it exists.
+	 *
+	 * @param file     the pack file
+	 * @param images   images by atlas id; {@code null} entries are stored as missing
+	 * @param tileSize tile size the images were scaled for
+	 */
+	public static void write(Path file, BufferedImage[] images, int tileSize) throws IOException {
+		try (OutputStream os = Files.newOutputStream(file);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(tileSize);
+			out.writeInt(images.length);
+			for (BufferedImage img : images) {
+				out.writeInt(img != null ? img.getWidth() : 0);
+				out.writeInt(img != null ? img.getHeight() : 0);
+			}
+			for (BufferedImage img : images) {
+				if (img == null)
+					continue;
+				int w = img.getWidth(), h = img.getHeight();
+				for (int argb : img.getRGB(0, 0, w, h, null, 0, w))
+					out.writeInt(argb);
+			}
+		}
+	}
+
+	/**
+	 * Reads every image from a pack file.
+	 *
+	 * @param file     the pack file
+	 * @param tileSize tile size the caller needs
+	 * @return images by atlas id, {@code null} for assets missing when the pack
+	 *         was built
+	 * @throws IOException if the file cannot be read, is not a pack, is truncated,
+	 *                     or was built for another tile size
+	 */
+	public static BufferedImage[] read(Path file, int tileSize) throws IOException {
+		IntBuffer ints;
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			ints = ch.map(MapMode.READ_ONLY, 0, ch.size()).asIntBuffer();
+		}
+		if (ints.remaining() < HEADER_INTS || ints.get() != MAGIC || ints.get() != VERSION)
+			throw new IOException("Not an asset pack: " + file);
+		if (ints.get() != tileSize)
+			throw new IOException("Asset pack " + file + " was built for another tile size");
+		int count = ints.get();
+		if (count < 0 || ints.remaining() < 2L * count)
+			throw new IOException("Truncated asset pack: " + file);
+
+		int[] sizes = new int[2 * count];
+		ints.get(sizes);
+		long pixels = 0;
+		for (int i = 0; i < count; i++) {
+			if (sizes[2 * i] < 0 || sizes[2 * i + 1] < 0)
+				throw new IOException("Corrupt asset pack: " + file);
+			pixels += (long) sizes[2 * i] * sizes[2 * i + 1];
+		}
+		if (ints.remaining() < pixels)
+			throw new IOException("Truncated asset pack: " + file);
+
+		BufferedImage[] images = new BufferedImage[count];
+		for (int i = 0; i < count; i++) {
+			int w = sizes[2 * i], h = sizes[2 * i + 1];
+			if (w == 0 || h == 0)
+				continue;
+			int[] data = new int[w * h];
+			ints.get(data);
+			images[i] = wrap(data, w, h);
+		}
+		return images;
+	}
+
+	/** Returns an ARGB image backed by the given pixel array. */
+	private static BufferedImage wrap(int[] data, int w, int h) {
+		WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(data, data.length), w, h, w, ARGB_MASKS,
+				null);
+		return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+	}
+}
@@ -0,0 +1,142 @@
+package maze;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Shared store of decoded image files and their scaled copies.
+ *
+ * <p>
+ * Every file is read from disk once, however many loaders or threads ask for
+ * it, and every scaled size is made once; callers get the same image instance
+ * back and must not draw into it. A thread that asks for an image already being
+ * loaded waits for that load instead of starting another. Misses are
+ * remembered too, so a missing file is only looked up once.
+ *
+ * <p>
+ * Images are kept in least recently used order. Once they exceed the pixel
+ * budget the oldest are dropped, to be read again if needed; images in use
+ * elsewhere, such as packed into an atlas, stay alive through those references.
+ */
+public class AssetRegistry {
+
+	/** Pixel budget of the shared registry, about 32 MB. */
+	private static final long MAX_PIXELS = 1 << 23;
+
+	private static final AssetRegistry shared = new AssetRegistry(MAX_PIXELS);
+
+	private final long maxPixels;
+	private long pixels = 0;
+
+	/**
+	 * Loaded and loading images by key: the file path, or the path followed by
+	 * {@code @widthxheight} for scaled copies. A {@code null} result marks a miss.
+	 */
+	private final LinkedHashMap<String, CompletableFuture<BufferedImage>> entries = new LinkedHashMap<>(64, 0.75f,
+			true);
+
+	/**
+	 * @param maxPixels total pixel count kept before the oldest images are evicted
+	 */
+	public AssetRegistry(long maxPixels) {
+		this.maxPixels = maxPixels;
+	}
+
+	/** Returns the registry shared by the whole game. */
+	public static AssetRegistry get() {
+		return shared;
+	}
+
+	/**
+	 * Returns a decoded image file.
+	 *
+	 * @param path file path relative to the working directory
+	 * @return the shared image, or {@code null} if the file is missing or
+	 *         unreadable
+	 */
+	public BufferedImage getImage(String path) {
+		return lookup(path, () -> decode(path));
+	}
+
+	/**
+	 * Returns an image file scaled to the given size with
+	 * {@link SpriteLoader#scale}. The original is fetched through
+	 * {@link #getImage}, so it is not read again.
+	 *
+	 * @param path   file path relative to the working directory
+	 * @param width  target width in pixels
+	 * @param height target height in pixels
+	 * @return the shared scaled image, or {@code null} if the file is missing or
+	 *         unreadable
+	 */
+	public BufferedImage getScaled(String path, int width, int height) {
+		return lookup(path + '@' + width + 'x' + height, () -> {
+			BufferedImage src = getImage(path);
+			return src != null ? SpriteLoader.scale(src, width, height) : null;
+		});
+	}
+
+	/** Returns the entry for a key, loading it on this thread if nobody has yet. */
+	private BufferedImage lookup(String key, Supplier<BufferedImage> loader) {
+		CompletableFuture<BufferedImage> entry, mine = null;
+		synchronized (this) {
+			entry = entries.get(key);
+			if (entry == null) {
+				entry = mine = new CompletableFuture<>();
+				entries.put(key, mine);
+			}
+		}
+		if (mine != null) {
+			BufferedImage img;
+			try {
+				img = loader.get();
+			} catch (RuntimeException e) {
+				synchronized (this) {
+					entries.remove(key);
+				}
+				mine.completeExceptionally(e);
+				throw e;
+			}
+			mine.complete(img);
+			added(img);
+		}
+		return entry.join();
+	}
+
+	/** Counts a newly loaded image and evicts the oldest finished ones over budget. */
+	private synchronized void added(BufferedImage img) {
+		pixels += pixelCount(img);
+		Iterator<CompletableFuture<BufferedImage>> it = entries.values().iterator();
+		while (pixels > maxPixels && it.hasNext()) {
+			CompletableFuture<BufferedImage> eldest = it.next();
+			BufferedImage evicted = eldest.getNow(null);
+			if (evicted == null || evicted == img)
+				continue;
+			pixels -= pixelCount(evicted);
+			it.remove();
+		}
+	}
+
+	private static long pixelCount(BufferedImage img) {
+		return img != null ? (long) img.getWidth() * img.getHeight() : 0;
+	}
+
+	/** Reads an image file, returning {@code null} if it is missing or unreadable. */
+	private static BufferedImage decode(String path) {
+		File f = new File(path);
+		if (!f.exists())
+			return null;
+		try {
+			return ImageIO.read(f);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package maze;
+
+/**
+ * Scrolling viewport onto the map, kept centred on the player.
+ *
+ * <p>
+ * The camera's position is the map pixel shown at the top-left corner of the
+ * screen. It is clamped so the view never scrolls past the map's edges; a map
+ * smaller than the view is centred instead. Updated by the game thread and read
+ * by the Swing thread, so the position is published as a single volatile value.
+ */
+public class Camera {
+
+	private final int viewWidth, viewHeight;
+	private int mapWidth, mapHeight;
+
+	/** Top-left corner, packed as {@code (x << 32) | (y & 0xFFFFFFFF)}. */
+	private volatile long position;
+
+	/**
+	 * @param viewWidth  width of the screen area in pixels
+	 * @param viewHeight height of the screen area in pixels
+	 */
+	public Camera(int viewWidth, int viewHeight) {
+		this.viewWidth = viewWidth;
+		this.viewHeight = viewHeight;
+	}
+
+	/**
+	 * Sets the size of the map being viewed.
+	 *
+	 * @param map the map the camera scrolls over
+	 */
+	public void setMap(MazeMap map) {
+		mapWidth = map.getCols() * MazeMap.TILE_SIZE;
+		mapHeight = map.getRows() * MazeMap.TILE_SIZE;
+	}
+
+	/**
+	 * Moves the view so the given entity is centred, as far as the map edges
+	 * allow.
+	 *
+	 * @param e the entity to follow
+	 * @return {@code true} if the view moved
+	 */
+	public boolean follow(Entity e) {
+		return follow(e.getPixelX(), e.getPixelY());
+	}
+
+	/**
+	 * Moves the view so a tile-sized sprite at the given position is centred, as
+	 * far as the map edges allow.
+	 *
+	 * @param pixelX sprite's X position in pixels
+	 * @param pixelY sprite's Y position in pixels
+	 * @return {@code true} if the view moved
+	 */
+	public boolean follow(int pixelX, int pixelY) {
+		int half = MazeMap.TILE_SIZE / 2;
+		int x = clamp(pixelX + half - viewWidth / 2, mapWidth, viewWidth);
+		int y = clamp(pixelY + half - viewHeight / 2, mapHeight, viewHeight);
+		long packed = ((long) x << 32) | (y & 0xFFFFFFFFL);
+		if (packed == position)
+			return false;
+		position = packed;
+		return true;
+	}
+
+	private static int clamp(int pos, int mapSize, int viewSize) {
+		if (mapSize <= viewSize)
+			return (mapSize - viewSize) / 2;
+		return Math.max(0, Math.min(mapSize - viewSize, pos));
+	}
+
+	/**
+	 * Returns the current position packed into one value, so a reader sees a
+	 * matching x and y. Unpack with {@link #x(long)} and {@link #y(long)}.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/** Returns the x coordinate of a packed position. */
+	public static int x(long position) {
+		return (int) (position >> 32);
+	}
+
+	/** Returns the y coordinate of a packed position. */
+	public static int y(long position) {
+		return (int) position;
+	}
+
+	/** Returns the view width in pixels. */
+	public int getViewWidth() {
+		return viewWidth;
+	}
+
+	/** Returns the view height in pixels. */
+	public int getViewHeight() {
+		return viewHeight;
+	}
+}
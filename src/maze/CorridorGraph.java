@@ -0,0 +1,446 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Compressed junction graph of a {@link MazeMap} for pathfinding.
+ *
+ * <p>
+ * Every walkable tile that is not a plain two-way corridor (a junction, dead end
+ * or isolated tile) becomes a node. Runs of corridor tiles between two nodes
+ * collapse into a single edge weighted by its length, so a search only has to
+ * visit junctions instead of every floor tile. A loop made only of corridor
+ * tiles gets one of its tiles promoted to a node.
+ *
+ * <p>
+ * The graph is built once when the map loads and rebuilt lazily on the next
+ * query after a tile's walkability changes. Queries use scratch buffers owned by
+ * the graph and produce no garbage; not thread-safe.
+ *
+ * @see MazeMap#getCorridorGraph()
+ */
+public class CorridorGraph implements TileChangeListener {
+
+	private final MazeMap map;
+	private final int rows, cols;
+
+	/** Node id of each packed tile, or -1 if the tile is not a node. */
+	private final int[] nodeOf;
+
+	/** Edge id of each corridor tile, or -1. */
+	private final int[] edgeOf;
+
+	/** Steps from an edge's first endpoint to each of its corridor tiles. */
+	private final int[] edgeOffset;
+
+	private int nodeCount;
+	private int[] nodeTile;
+
+	private int edgeCount;
+	private int[] edgeA, edgeB, edgeLen;
+
+	/** Corridor tiles of edge {@code e} occupy {@code edgeCellStart[e]} onward, A to B. */
+	private int[] edgeCellStart;
+	private int[] edgeCells;
+	private int edgeCellCount;
+
+	/** Node adjacency in compressed-row form: edges of node n are adjEdge[adjStart[n]..adjStart[n+1]). */
+	private int[] adjStart, adjEdge;
+
+	private boolean dirty = true;
+
+	// Query scratch, sized on rebuild.
+	private int[] nodeDist, nodeGen, parentNode, parentEdge, chain;
+	private int generation;
+	private long[] heap;
+	private int heapSize;
+	private final int[] path;
+	private int pathLength;
+
+	private static final int NO_PARENT = -1;
+
+	/** Parent marker for nodes seeded directly from a start tile inside a corridor. */
+	private static final int FROM_START = -2;
+
+	/**
+	 * Builds the graph for the given map and subscribes to its tile changes.
+	 *
+	 * @param map the maze to compress
+	 */
+	CorridorGraph(MazeMap map) {
+		this.map = map;
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		int n = rows * cols;
+		nodeOf = new int[n];
+		edgeOf = new int[n];
+		edgeOffset = new int[n];
+		path = new int[n];
+		map.addTileChangeListener(this);
+		rebuild();
+	}
+
+	/** Marks the graph stale when a tile's walkability flips. */
+	@Override
+	public void tileChanged(int row, int col, char oldTile, char newTile) {
+		if (MazeMap.isWalkable(oldTile) != MazeMap.isWalkable(newTile))
+			dirty = true;
+	}
+
+	/** Returns the number of junction nodes. */
+	public int getNodeCount() {
+		ensureBuilt();
+		return nodeCount;
+	}
+
+	/** Returns the number of corridor edges. */
+	public int getEdgeCount() {
+		ensureBuilt();
+		return edgeCount;
+	}
+
+	private void ensureBuilt() {
+		if (dirty)
+			rebuild();
+	}
+
+	/** Recomputes nodes, edges and adjacency from the current tiles. */
+	private void rebuild() {
+		int n = rows * cols;
+		Arrays.fill(nodeOf, -1);
+		Arrays.fill(edgeOf, -1);
+		nodeTile = new int[16];
+		nodeCount = 0;
+		edgeA = new int[16];
+		edgeB = new int[16];
+		edgeLen = new int[16];
+		edgeCellStart = new int[16];
+		edgeCount = 0;
+		edgeCells = new int[Math.max(16, n / 2)];
+		edgeCellCount = 0;
+
+		for (int idx = 0; idx < n; idx++)
+			if (isWalkable(idx) && degree(idx) != 2)
+				addNode(idx);
+		for (int node = 0; node < nodeCount; node++)
+			traceEdges(node);
+
+		// Whatever corridor tiles are still unclaimed form closed loops.
+		for (int idx = 0; idx < n; idx++) {
+			if (isWalkable(idx) && nodeOf[idx] < 0 && edgeOf[idx] < 0) {
+				traceEdges(addNode(idx));
+			}
+		}
+
+		adjStart = new int[nodeCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			adjStart[edgeA[e] + 1]++;
+			adjStart[edgeB[e] + 1]++;
+		}
+		for (int i = 0; i < nodeCount; i++)
+			adjStart[i + 1] += adjStart[i];
+		adjEdge = new int[adjStart[nodeCount]];
+		int[] fill = Arrays.copyOf(adjStart, nodeCount);
+		for (int e = 0; e < edgeCount; e++) {
+			adjEdge[fill[edgeA[e]]++] = e;
+			adjEdge[fill[edgeB[e]]++] = e;
+		}
+
+		nodeDist = new int[nodeCount];
+		nodeGen = new int[nodeCount];
+		parentNode = new int[nodeCount];
+		parentEdge = new int[nodeCount];
+		chain = new int[nodeCount];
+		generation = 0;
+		heap = new long[Math.max(16, adjEdge.length + 2)];
+		dirty = false;
+	}
+
+	private int addNode(int idx) {
+		if (nodeCount == nodeTile.length)
+			nodeTile = Arrays.copyOf(nodeTile, nodeCount * 2);
+		nodeTile[nodeCount] = idx;
+		nodeOf[idx] = nodeCount;
+		return nodeCount++;
+	}
+
+	/** Walks every corridor leaving the given node and records its edges. */
+	private void traceEdges(int node) {
+		int start = nodeTile[node];
+		int r = start / cols, c = start - r * cols;
+		if (r > 0)
+			traceEdge(node, start, start - cols);
+		if (r < rows - 1)
+			traceEdge(node, start, start + cols);
+		if (c > 0)
+			traceEdge(node, start, start - 1);
+		if (c < cols - 1)
+			traceEdge(node, start, start + 1);
+	}
+
+	/**
+	 * Follows one corridor from {@code from} through {@code first} until it reaches
+	 * another node. Each edge is recorded once: direct node-to-node links only
+	 * from the lower id, corridors only if their first tile is still unclaimed.
+	 */
+	private void traceEdge(int node, int from, int first) {
+		if (!isWalkable(first))
+			return;
+		if (nodeOf[first] >= 0) {
+			if (node < nodeOf[first])
+				addEdge(node, nodeOf[first], 1, edgeCellCount);
+			return;
+		}
+		if (edgeOf[first] >= 0)
+			return;
+
+		int e = edgeCount, cellStart = edgeCellCount;
+		int prev = from, cur = first, len = 1;
+		while (nodeOf[cur] < 0) {
+			if (edgeCellCount == edgeCells.length)
+				edgeCells = Arrays.copyOf(edgeCells, edgeCellCount * 2);
+			edgeCells[edgeCellCount++] = cur;
+			edgeOf[cur] = e;
+			edgeOffset[cur] = len;
+			int next = otherNeighbour(cur, prev);
+			prev = cur;
+			cur = next;
+			len++;
+		}
+		addEdge(node, nodeOf[cur], len, cellStart);
+	}
+
+	private void addEdge(int a, int b, int len, int cellStart) {
+		if (edgeCount == edgeA.length) {
+			int cap = edgeCount * 2;
+			edgeA = Arrays.copyOf(edgeA, cap);
+			edgeB = Arrays.copyOf(edgeB, cap);
+			edgeLen = Arrays.copyOf(edgeLen, cap);
+			edgeCellStart = Arrays.copyOf(edgeCellStart, cap);
+		}
+		edgeA[edgeCount] = a;
+		edgeB[edgeCount] = b;
+		edgeLen[edgeCount] = len;
+		edgeCellStart[edgeCount] = cellStart;
+		edgeCount++;
+	}
+
+	/** Returns the walkable neighbour of a corridor tile that is not {@code prev}. */
+	private int otherNeighbour(int idx, int prev) {
+		int r = idx / cols, c = idx - r * cols;
+		if (r > 0 && idx - cols != prev && isWalkable(idx - cols))
+			return idx - cols;
+		if (r < rows - 1 && idx + cols != prev && isWalkable(idx + cols))
+			return idx + cols;
+		if (c > 0 && idx - 1 != prev && isWalkable(idx - 1))
+			return idx - 1;
+		return idx + 1;
+	}
+
+	private int degree(int idx) {
+		int r = idx / cols, c = idx - r * cols, d = 0;
+		if (r > 0 && isWalkable(idx - cols))
+			d++;
+		if (r < rows - 1 && isWalkable(idx + cols))
+			d++;
+		if (c > 0 && isWalkable(idx - 1))
+			d++;
+		if (c < cols - 1 && isWalkable(idx + 1))
+			d++;
+		return d;
+	}
+
+	private boolean isWalkable(int idx) {
+		return map.isOpen(idx / cols, idx % cols);
+	}
+
+	/**
+	 * Finds a shortest path between two tiles by running Dijkstra over the
+	 * junction nodes, then expanding the chosen corridors back into tiles. On
+	 * success the steps are available through {@link #getPathRow(int)} and
+	 * {@link #getPathCol(int)}.
+	 *
+	 * @return number of steps in the path, or {@code -1} if the goal cannot be
+	 *         reached (or equals the start)
+	 */
+	public int findPath(int startRow, int startCol, int goalRow, int goalCol) {
+		ensureBuilt();
+		pathLength = 0;
+		if (!map.isWalkable(startRow, startCol) || !map.isWalkable(goalRow, goalCol))
+			return -1;
+		int start = startRow * cols + startCol, goal = goalRow * cols + goalCol;
+		if (start == goal)
+			return -1;
+
+		if (++generation == 0) {
+			Arrays.fill(nodeGen, 0);
+			generation = 1;
+		}
+		heapSize = 0;
+
+		// Seed the search from the start node, or from both ends of its corridor.
+		int startEdge = edgeOf[start], startOff = edgeOffset[start];
+		if (nodeOf[start] >= 0) {
+			offer(nodeOf[start], 0, NO_PARENT, -1);
+		} else {
+			offer(edgeA[startEdge], startOff, FROM_START, startEdge);
+			offer(edgeB[startEdge], edgeLen[startEdge] - startOff, FROM_START, startEdge);
+		}
+
+		int goalNode = nodeOf[goal], goalEdge = edgeOf[goal], goalOff = edgeOffset[goal];
+		int best = PathFinder.UNREACHABLE, bestNode = -1;
+		boolean direct = false;
+		if (goalNode < 0 && goalEdge == startEdge && nodeOf[start] < 0) {
+			best = Math.abs(goalOff - startOff);
+			direct = true;
+		}
+
+		while (heapSize > 0) {
+			long top = pollHeap();
+			int d = (int) (top >>> 32), u = (int) top;
+			if (d >= best)
+				break;
+			if (d > nodeDist[u])
+				continue;
+
+			if (u == goalNode) {
+				best = d;
+				bestNode = u;
+				direct = false;
+				break;
+			}
+			if (goalNode < 0) {
+				int viaA = (edgeA[goalEdge] == u) ? d + goalOff : PathFinder.UNREACHABLE;
+				int viaB = (edgeB[goalEdge] == u) ? d + edgeLen[goalEdge] - goalOff : PathFinder.UNREACHABLE;
+				if (Math.min(viaA, viaB) < best) {
+					best = Math.min(viaA, viaB);
+					bestNode = u;
+					direct = false;
+				}
+			}
+
+			for (int i = adjStart[u]; i < adjStart[u + 1]; i++) {
+				int e = adjEdge[i];
+				if (edgeA[e] == edgeB[e])
+					continue;
+				int v = (edgeA[e] == u) ? edgeB[e] : edgeA[e];
+				offer(v, d + edgeLen[e], u, e);
+			}
+		}
+
+		if (best == PathFinder.UNREACHABLE)
+			return -1;
+		expandPath(start, goal, best, bestNode, direct);
+		return pathLength;
+	}
+
+	/** Records a tentative distance for a node and queues it if it improved. */
+	private void offer(int node, int d, int parent, int viaEdge) {
+		if (nodeGen[node] == generation && nodeDist[node] <= d)
+			return;
+		nodeGen[node] = generation;
+		nodeDist[node] = d;
+		parentNode[node] = parent;
+		parentEdge[node] = viaEdge;
+		pushHeap(((long) d << 32) | node);
+	}
+
+	/** Turns the node-level result into the tile-by-tile path buffer. */
+	private void expandPath(int start, int goal, int total, int lastNode, boolean direct) {
+		if (direct) {
+			emitRun(edgeOf[start], edgeOffset[start], edgeOffset[goal]);
+			return;
+		}
+
+		int count = 0;
+		for (int n = lastNode; n >= 0; n = parentNode[n]) {
+			chain[count++] = n;
+			if (parentNode[n] < 0)
+				break;
+		}
+
+		// chain holds nodes from lastNode back to the first node reached.
+		int first = chain[count - 1];
+		if (parentNode[first] == FROM_START) {
+			int e = parentEdge[first], off = edgeOffset[start];
+			boolean toA = edgeA[e] == first && (edgeA[e] != edgeB[e] || off <= edgeLen[e] - off);
+			emitRun(e, off, toA ? 0 : edgeLen[e]);
+		}
+		for (int i = count - 2; i >= 0; i--) {
+			int e = parentEdge[chain[i]];
+			boolean forward = edgeA[e] == chain[i + 1];
+			emitRun(e, forward ? 0 : edgeLen[e], forward ? edgeLen[e] : 0);
+		}
+		if (nodeOf[goal] < 0) {
+			int e = edgeOf[goal], off = edgeOffset[goal];
+			int fromA = nodeDist[lastNode] + off;
+			boolean viaA = edgeA[e] == lastNode && fromA == total;
+			emitRun(e, viaA ? 0 : edgeLen[e], off);
+		}
+	}
+
+	/** Appends the tiles after offset {@code from} up to and including {@code to}. */
+	private void emitRun(int e, int from, int to) {
+		int step = (from < to) ? 1 : -1;
+		for (int o = from; o != to;) {
+			o += step;
+			path[pathLength++] = tileAt(e, o);
+		}
+	}
+
+	/** Returns the packed tile at the given offset along an edge. */
+	private int tileAt(int e, int offset) {
+		if (offset == 0)
+			return nodeTile[edgeA[e]];
+		if (offset == edgeLen[e])
+			return nodeTile[edgeB[e]];
+		return edgeCells[edgeCellStart[e] + offset - 1];
+	}
+
+	private void pushHeap(long key) {
+		if (heapSize == heap.length)
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		int i = heapSize++;
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (heap[p] <= key)
+				break;
+			heap[i] = heap[p];
+			i = p;
+		}
+		heap[i] = key;
+	}
+
+	private long pollHeap() {
+		long top = heap[0], last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return top;
+	}
+
+	/** Returns the number of steps in the last path found. */
+	public int getPathLength() {
+		return pathLength;
+	}
+
+	/** Returns the row of step {@code i} of the last path found. */
+	public int getPathRow(int i) {
+		return path[i] / cols;
+	}
+
+	/** Returns the column of step {@code i} of the last path found. */
+	public int getPathCol(int i) {
+		return path[i] % cols;
+	}
+}
@@ -0,0 +1,88 @@
+package maze;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates the screen regions that need repainting between frames.
+ *
+ * <p>
+ * The game thread adds damaged rectangles after each tick and the Swing thread
+ * takes them when it paints, so every method is synchronized. Nearby
+ * rectangles are merged as they are added to keep the list short; once it
+ * grows past {@link #MAX_REGIONS} or covers most of the screen the tracker
+ * gives up and asks for a full repaint instead.
+ */
+public class DamageTracker {
+
+	/** Most separate regions kept before falling back to a full repaint. */
+	private static final int MAX_REGIONS = 32;
+
+	/** Rectangles this close together are merged into one. */
+	private static final int MERGE_DISTANCE = MazeMap.TILE_SIZE / 2;
+
+	private final int width, height;
+	private final ArrayList<Rectangle> regions = new ArrayList<>();
+	private long area = 0;
+	private boolean full = false;
+
+	/**
+	 * @param width  width of the painted surface in pixels
+	 * @param height height of the painted surface in pixels
+	 */
+	public DamageTracker(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Marks a rectangle as needing a repaint. Empty rectangles are ignored.
+	 *
+	 * @param r the damaged area; not retained
+	 */
+	public synchronized void add(Rectangle r) {
+		if (full || r.isEmpty())
+			return;
+		Rectangle merged = new Rectangle(r);
+		for (int i = regions.size() - 1; i >= 0; i--) {
+			Rectangle other = regions.get(i);
+			if (isNear(merged, other)) {
+				merged.add(other);
+				area -= (long) other.width * other.height;
+				regions.remove(i);
+				i = regions.size();
+			}
+		}
+		regions.add(merged);
+		area += (long) merged.width * merged.height;
+		if (regions.size() > MAX_REGIONS || area * 2 > (long) width * height)
+			addAll();
+	}
+
+	/** Marks the whole surface as needing a repaint. */
+	public synchronized void addAll() {
+		full = true;
+		regions.clear();
+		area = 0;
+	}
+
+	/**
+	 * Removes and returns the damage collected so far.
+	 *
+	 * @return the damaged regions, or {@code null} if the whole surface needs
+	 *         repainting; an empty list if nothing changed
+	 */
+	public synchronized List<Rectangle> take() {
+		List<Rectangle> out = full ? null : new ArrayList<>(regions);
+		full = false;
+		regions.clear();
+		area = 0;
+		return out;
+	}
+
+	private static boolean isNear(Rectangle a, Rectangle b) {
+		return a.x - MERGE_DISTANCE < b.x + b.width && b.x - MERGE_DISTANCE < a.x + a.width
+				&& a.y - MERGE_DISTANCE < b.y + b.height && b.y - MERGE_DISTANCE < a.y + a.height;
+	}
+}
@@ -0,0 +1,145 @@
+package maze;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rendered variants of the translucent effects drawn over entities: the
+ * player's invincibility flash, every step of the shield pulse, and every step
+ * of the zombies' hunt aura.
+ *
+ * <p>
+ * Each effect is baked once into a shared {@link TextureAtlas}, so drawing one
+ * is a plain blit with no composite switches or colour allocations. The pulses
+ * use integer alpha steps, so the baked set covers every value the entities
+ * can ask for.
+ */
+public class EffectCache {
+
+	/** Range of shield glow alpha values, inclusive. */
+	public static final int SHIELD_MIN_ALPHA = 120, SHIELD_MAX_ALPHA = 200;
+
+	/** Range of hunt aura alpha values, inclusive. */
+	public static final int AURA_MIN_ALPHA = 40, AURA_MAX_ALPHA = 70;
+
+	/** Opacity of the player sprite during invincibility frames. */
+	private static final float FLASH_OPACITY = 0.4f;
+
+	private static final Color SHIELD_COLOR = new Color(80, 160, 255);
+	private static final Color SHIELD_RIM_COLOR = new Color(180, 220, 255);
+
+	/** Margin of the shield glow and hunt aura around the tile, in pixels. */
+	private static final int SHIELD_MARGIN = 4, AURA_MARGIN = 5;
+
+	private static final int FLASH = 0;
+	private static final int SHIELD = FLASH + 12;
+	private static final int AURA = SHIELD + SHIELD_MAX_ALPHA - SHIELD_MIN_ALPHA + 1;
+
+	private static volatile EffectCache instance;
+
+	/** Sprite atlas the flash frames were baked from. */
+	private final TextureAtlas sprites;
+	private final TextureAtlas atlas;
+
+	/**
+	 * Returns the shared cache, baking every effect on the first call and again
+	 * when the loaded sprites replace the stand-ins.
+	 */
+	public static EffectCache get() {
+		TextureAtlas sprites = SpriteLoader.getAtlas();
+		EffectCache cache = instance;
+		return cache != null && cache.sprites == sprites ? cache : bake(sprites);
+	}
+
+	private static synchronized EffectCache bake(TextureAtlas sprites) {
+		if (instance == null || instance.sprites != sprites)
+			instance = new EffectCache(sprites);
+		return instance;
+	}
+
+	private EffectCache(TextureAtlas sprites) {
+		this.sprites = sprites;
+		int s = MazeMap.TILE_SIZE;
+		BufferedImage[] images = new BufferedImage[AURA + AURA_MAX_ALPHA - AURA_MIN_ALPHA + 1];
+
+		for (int i = 0; i < 12; i++) {
+			images[FLASH + i] = new BufferedImage(s, s, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = images[FLASH + i].createGraphics();
+			g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, FLASH_OPACITY));
+			sprites.draw(g, SpriteLoader.PLAYER_SPRITE + i, 0, 0);
+			g.dispose();
+		}
+
+		int glow = s + 2 * SHIELD_MARGIN;
+		for (int a = SHIELD_MIN_ALPHA; a <= SHIELD_MAX_ALPHA; a++) {
+			BufferedImage img = new BufferedImage(glow + 1, glow + 1, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = createGraphics(img);
+			g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, a / 255f));
+			g.setColor(SHIELD_COLOR);
+			g.fillOval(0, 0, glow, glow);
+			g.setComposite(AlphaComposite.SrcOver);
+			g.setColor(SHIELD_RIM_COLOR);
+			g.drawOval(0, 0, glow, glow);
+			g.dispose();
+			images[SHIELD + a - SHIELD_MIN_ALPHA] = img;
+		}
+
+		int aura = s + 2 * AURA_MARGIN;
+		for (int a = AURA_MIN_ALPHA; a <= AURA_MAX_ALPHA; a++) {
+			BufferedImage img = new BufferedImage(aura + 1, aura + 1, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = createGraphics(img);
+			g.setColor(new Color(255, 0, 0, a));
+			g.fillOval(0, 0, aura, aura);
+			g.dispose();
+			images[AURA + a - AURA_MIN_ALPHA] = img;
+		}
+
+		atlas = new TextureAtlas(images);
+	}
+
+	/** Returns an antialiased graphics context, matching the scene renderer. */
+	private static Graphics2D createGraphics(BufferedImage img) {
+		Graphics2D g = img.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		return g;
+	}
+
+	/**
+	 * Draws a player frame at invincibility-flash opacity.
+	 *
+	 * @param frame player frame index, {@code direction * 3 + frame}
+	 * @param x     player's X position in pixels
+	 * @param y     player's Y position in pixels
+	 */
+	public void drawFlashedPlayer(Graphics g, int frame, int x, int y) {
+		atlas.draw(g, FLASH + frame, x, y);
+	}
+
+	/**
+	 * Draws the shield glow around the player.
+	 *
+	 * @param alpha glow opacity, clamped to the baked range
+	 * @param x     player's X position in pixels
+	 * @param y     player's Y position in pixels
+	 */
+	public void drawShieldGlow(Graphics g, int alpha, int x, int y) {
+		int a = Math.max(SHIELD_MIN_ALPHA, Math.min(SHIELD_MAX_ALPHA, alpha));
+		atlas.draw(g, SHIELD + a - SHIELD_MIN_ALPHA, x - SHIELD_MARGIN, y - SHIELD_MARGIN);
+	}
+
+	/**
+	 * Draws the hunt-mode aura behind a zombie.
+	 *
+	 * @param alpha aura opacity, clamped to the baked range
+	 * @param x     zombie's X position in pixels
+	 * @param y     zombie's Y position in pixels
+	 */
+	public void drawHuntAura(Graphics g, int alpha, int x, int y) {
+		int a = Math.max(AURA_MIN_ALPHA, Math.min(AURA_MAX_ALPHA, alpha));
+		atlas.draw(g, AURA + a - AURA_MIN_ALPHA, x - AURA_MARGIN, y - AURA_MARGIN);
+	}
+}
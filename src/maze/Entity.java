@@ -12,12 +12,18 @@ import java.awt.Rectangle;
  */
 public abstract class Entity {
 
+	/** Pixels trimmed from each side of the tile to form the collision box. */
+	protected static final int COLLISION_INSET = 4;
+
 	/** Horizontal position in pixels (top-left corner). */
 	protected float x;
 
 	/** Vertical position in pixels (top-left corner). */
 	protected float y;
 
+	/** Position at the start of the current tick, for render interpolation. */
+	protected float prevX, prevY;
+
 	/**
 	 * @param x initial X position in pixels
 	 * @param y initial Y position in pixels
@@ -25,6 +31,39 @@ public abstract class Entity {
 	public Entity(float x, float y) {
 		this.x = x;
 		this.y = y;
+		prevX = x;
+		prevY = y;
+	}
+
+	/**
+	 * Records the current position as the start of a new tick. Called at the top
+	 * of {@link #update} by entities that move.
+	 */
+	protected void savePosition() {
+		prevX = x;
+		prevY = y;
+	}
+
+	/**
+	 * Returns the X position interpolated between the previous and current tick,
+	 * rounded to the nearest pixel.
+	 *
+	 * @param alpha fraction of the tick elapsed, 0 for the previous position and 1
+	 *              for the current one
+	 */
+	public int getInterpolatedX(double alpha) {
+		return (int) Math.round(prevX + (x - prevX) * alpha);
+	}
+
+	/**
+	 * Returns the Y position interpolated between the previous and current tick,
+	 * rounded to the nearest pixel.
+	 *
+	 * @param alpha fraction of the tick elapsed, 0 for the previous position and 1
+	 *              for the current one
+	 */
+	public int getInterpolatedY(double alpha) {
+		return (int) Math.round(prevY + (y - prevY) * alpha);
 	}
 
 	/** Returns the X position rounded to the nearest pixel. */
@@ -42,9 +81,35 @@ public abstract class Entity {
 	 * to allow easier corridor navigation.
 	 */
 	public Rectangle getBounds() {
-		int inset = 4;
-		return new Rectangle(getPixelX() + inset, getPixelY() + inset, MazeMap.TILE_SIZE - inset * 2,
-				MazeMap.TILE_SIZE - inset * 2);
+		return new Rectangle(getPixelX() + COLLISION_INSET, getPixelY() + COLLISION_INSET,
+				MazeMap.TILE_SIZE - COLLISION_INSET * 2, MazeMap.TILE_SIZE - COLLISION_INSET * 2);
+	}
+
+	/**
+	 * Stores the screen area this entity's next {@link #draw} will cover in
+	 * {@code out}. Used to repaint only the parts of the screen that change.
+	 * Defaults to the tile-sized box at the entity's position.
+	 *
+	 * @param out rectangle to overwrite
+	 * @return {@code out}
+	 */
+	public Rectangle getDrawBounds(Rectangle out) {
+		out.setBounds(getPixelX(), getPixelY(), MazeMap.TILE_SIZE, MazeMap.TILE_SIZE);
+		return out;
+	}
+
+	/**
+	 * Returns {@code true} if this entity's collision box overlaps another's. Same
+	 * test as intersecting the two {@link #getBounds()} rectangles, without
+	 * allocating them.
+	 *
+	 * @param other the entity to test against
+	 */
+	public boolean overlaps(Entity other) {
+		int span = MazeMap.TILE_SIZE - COLLISION_INSET * 2;
+		int ax = getPixelX() + COLLISION_INSET, ay = getPixelY() + COLLISION_INSET;
+		int bx = other.getPixelX() + COLLISION_INSET, by = other.getPixelY() + COLLISION_INSET;
+		return ax < bx + span && bx < ax + span && ay < by + span && by < ay + span;
 	}
 
 	/**
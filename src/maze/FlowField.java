@@ -0,0 +1,109 @@
+package maze;
+
+/**
+ * Shared breadth-first distance field toward a single goal tile.
+ *
+ * <p>
+ * In hunt mode every zombie chases the same player tile, so instead of each
+ * zombie running its own BFS the map keeps one field that is rebuilt (by a
+ * {@link PathFinder} flood from the goal) only when the goal tile changes. A
+ * zombie picks its next step in O(1) by moving to the neighbour with the
+ * smallest distance.
+ *
+ * <p>
+ * The field listens for tile changes on its map; when a door or wall opens or
+ * closes, only the distances that depended on that tile are repaired.
+ *
+ * @see MazeMap#getFlowField()
+ */
+public class FlowField implements TileChangeListener {
+
+	/** Distance stored for tiles that cannot reach the goal. */
+	public static final int UNREACHABLE = PathFinder.UNREACHABLE;
+
+	/** Row offsets for directions 0 up, 1 down, 2 left, 3 right. */
+	private static final int[] DIR_ROW = { -1, 1, 0, 0 };
+
+	/** Column offsets for directions 0 up, 1 down, 2 left, 3 right. */
+	private static final int[] DIR_COL = { 0, 0, -1, 1 };
+
+	/** Engine holding the distances; separate from the map's query engine. */
+	private final PathFinder search;
+
+	private int goalRow = -1, goalCol = -1;
+
+	/**
+	 * @param map the maze this field is computed over
+	 */
+	FlowField(MazeMap map) {
+		this.search = new PathFinder(map);
+		map.addTileChangeListener(this);
+	}
+
+	/**
+	 * Points the field at a new goal tile. Does nothing if the goal is unchanged,
+	 * so it is cheap to call every tick.
+	 *
+	 * @param row goal row
+	 * @param col goal column
+	 */
+	public void setGoal(int row, int col) {
+		if (row == goalRow && col == goalCol)
+			return;
+		goalRow = row;
+		goalCol = col;
+		search.floodFrom(row, col);
+	}
+
+	/**
+	 * Repairs the field in place when a tile's walkability changes. Changes that
+	 * keep the tile walkable (or blocked), such as floor to trap, are ignored.
+	 */
+	@Override
+	public void tileChanged(int row, int col, char oldTile, char newTile) {
+		if (goalRow < 0 || MazeMap.isWalkable(oldTile) == MazeMap.isWalkable(newTile))
+			return;
+		search.repairFlood(row, col);
+	}
+
+	/**
+	 * Returns the number of steps from the given tile to the goal, or
+	 * {@link #UNREACHABLE}.
+	 */
+	public int getDistance(int row, int col) {
+		return search.getDistance(row, col);
+	}
+
+	/**
+	 * Returns the direction of the next step toward the goal (0 up, 1 down, 2 left,
+	 * 3 right), or {@code -1} if the tile is already the goal or cannot reach it.
+	 * Ties are broken in up, down, left, right order.
+	 *
+	 * @param row current row
+	 * @param col current column
+	 */
+	public int nextDirection(int row, int col) {
+		int best = getDistance(row, col);
+		if (best == 0 || best == UNREACHABLE)
+			return -1;
+		int bestDir = -1;
+		for (int d = 0; d < 4; d++) {
+			int nd = getDistance(row + DIR_ROW[d], col + DIR_COL[d]);
+			if (nd < best) {
+				best = nd;
+				bestDir = d;
+			}
+		}
+		return bestDir;
+	}
+
+	/** Returns the row offset of the given direction. */
+	public static int rowOffset(int direction) {
+		return DIR_ROW[direction];
+	}
+
+	/** Returns the column offset of the given direction. */
+	public static int colOffset(int direction) {
+		return DIR_COL[direction];
+	}
+}
@@ -0,0 +1,132 @@
+package maze;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.DisplayMode;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Actively rendered front end for a {@link GameWorld}. Instead of asking Swing
+ * to repaint, the game thread draws every frame into a {@link BufferStrategy}
+ * and shows it itself, so frame latency does not depend on when the event
+ * thread gets around to painting. A {@link GameLoop} ticks the world at
+ * {@value GamePanel#FPS} per second and frames interpolate entity positions
+ * between ticks.
+ *
+ * <p>
+ * With vsync requested the canvas asks for a page-flipping strategy, which
+ * waits for the display's vertical retrace on pipelines that support it, and
+ * falls back to a blitting strategy otherwise. Frames are then paced to the
+ * display's refresh rate when it is known.
+ */
+public class GameCanvas extends Canvas {
+
+	private static final long serialVersionUID = 1L;
+
+	private final boolean vsync;
+	private GameLoop loop;
+	private MazeMap lastMap;
+	private final GameWorld world = new GameWorld();
+	private final SceneRenderer renderer = new SceneRenderer();
+	private final GameInput input = new GameInput(world);
+	private final Camera camera;
+	private final int width, height;
+
+	/**
+	 * Constructs the canvas around a world on level 1 and registers key listeners.
+	 *
+	 * @param vsync {@code true} to request a page-flipped, retrace-synchronised
+	 *              buffer strategy
+	 */
+	public GameCanvas(boolean vsync) {
+		this.vsync = vsync;
+		MazeMap map = world.getMap();
+		width = Math.min(GamePanel.VIEW_COLS, map.getCols()) * MazeMap.TILE_SIZE;
+		height = Math.min(GamePanel.VIEW_ROWS, map.getRows()) * MazeMap.TILE_SIZE;
+		camera = new Camera(width, height);
+		setPreferredSize(new Dimension(width, height));
+		setBackground(Color.BLACK);
+		setIgnoreRepaint(true);
+		setFocusable(true);
+		addKeyListener(input);
+	}
+
+	/**
+	 * Creates the buffer strategy and starts the game-loop thread. The canvas must
+	 * already be displayable, i.e. in a window that has been packed or shown.
+	 */
+	public void startGameThread() {
+		createStrategy();
+		int frameRate = GamePanel.FPS;
+		if (vsync) {
+			DisplayMode mode = getGraphicsConfiguration().getDevice().getDisplayMode();
+			if (mode.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN)
+				frameRate = mode.getRefreshRate();
+		}
+		loop = new GameLoop(GamePanel.FPS, frameRate, this::tick, this::render);
+		loop.start();
+	}
+
+	/** Returns the running game loop, for its measured rates. */
+	public GameLoop getGameLoop() {
+		return loop;
+	}
+
+	private void createStrategy() {
+		if (vsync) {
+			ImageCapabilities accelerated = new ImageCapabilities(true);
+			try {
+				createBufferStrategy(2,
+						new BufferCapabilities(accelerated, accelerated, BufferCapabilities.FlipContents.UNDEFINED));
+				return;
+			} catch (AWTException ignored) {
+				// Page flipping unavailable; fall through to the default strategy.
+			}
+		}
+		createBufferStrategy(2);
+	}
+
+	/** Applies queued level changes and advances the world one tick. */
+	private void tick() {
+		input.applyLevelChange();
+		world.update();
+		if (world.getMap() != lastMap) {
+			lastMap = world.getMap();
+			camera.setMap(lastMap);
+		}
+	}
+
+	/**
+	 * Draws one frame into the back buffer and shows it, redrawing if the buffer's
+	 * contents were lost or restored meanwhile. The camera follows the player's
+	 * interpolated position so the view scrolls smoothly between ticks.
+	 *
+	 * @param alpha fraction of a tick elapsed since the last update
+	 */
+	private void render(double alpha) {
+		Player player = world.getPlayer();
+		if (player != null && lastMap != null)
+			camera.follow(player.getInterpolatedX(alpha), player.getInterpolatedY(alpha));
+		BufferStrategy strategy = getBufferStrategy();
+		do {
+			do {
+				Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+				try {
+					g.setColor(Color.BLACK);
+					g.fillRect(0, 0, width, height);
+					renderer.render(g, world, camera.getPosition(), width, height, alpha);
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+}
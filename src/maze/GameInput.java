@@ -0,0 +1,64 @@
+package maze;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keyboard handling shared by the game's front ends: movement and block keys go
+ * to the player while playing, R restarts after the game ends and N advances
+ * after a level is cleared.
+ *
+ * <p>
+ * Keys arrive on the event thread while the game thread iterates the world, so
+ * restarts and level advances are only queued here; the game thread applies
+ * them through {@link #applyLevelChange()} at the start of its next tick.
+ */
+public class GameInput extends KeyAdapter {
+
+	private final GameWorld world;
+
+	/** Level load requested by the last R or N key, waiting for the game thread. */
+	private final AtomicReference<Runnable> levelChange = new AtomicReference<>();
+
+	/**
+	 * @param world the world to control
+	 */
+	public GameInput(GameWorld world) {
+		this.world = world;
+	}
+
+	@Override
+	public void keyPressed(KeyEvent e) {
+		switch (world.getState()) {
+		case PLAYING -> {
+			if (world.getPlayer() != null)
+				world.getPlayer().keyPressed(e);
+		}
+		case GAME_OVER, WIN -> {
+			if (e.getKeyCode() == KeyEvent.VK_R)
+				levelChange.set(world::restart);
+		}
+		case LEVEL_COMPLETE -> {
+			if (e.getKeyCode() == KeyEvent.VK_N)
+				levelChange.set(world::advanceLevel);
+		}
+		}
+	}
+
+	/**
+	 * Applies a restart or level advance requested since the last call, if any.
+	 * Must be called on the thread that updates the world.
+	 */
+	public void applyLevelChange() {
+		Runnable change = levelChange.getAndSet(null);
+		if (change != null)
+			change.run();
+	}
+
+	@Override
+	public void keyReleased(KeyEvent e) {
+		if (world.getPlayer() != null)
+			world.getPlayer().keyReleased(e);
+	}
+}
@@ -0,0 +1,118 @@
+package maze;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Fixed-timestep game loop on its own thread.
+ *
+ * <p>
+ * Updates run at exactly the tick rate against absolute deadlines, so the game
+ * keeps real-time pace under load: a late loop runs up to
+ * {@value #MAX_UPDATES_PER_FRAME} updates back to back to catch up, and past
+ * that drops the backlog rather than spiralling. Frames are rendered at their
+ * own rate and told how far the clock is between the last tick and the next,
+ * for interpolating entity positions. Between deadlines the thread is parked,
+ * so an idle game uses almost no CPU.
+ *
+ * <p>
+ * Measured tick and frame rates are published once a second.
+ */
+public class GameLoop implements Runnable {
+
+	/** Most updates run in one pass before the loop gives up catching up. */
+	public static final int MAX_UPDATES_PER_FRAME = 5;
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private final long tickNanos, frameNanos;
+	private final Runnable update;
+	private final DoubleConsumer render;
+
+	private volatile boolean running;
+	private Thread thread;
+
+	private volatile double tickRate, frameRate;
+
+	/**
+	 * @param ticksPerSecond  update rate
+	 * @param framesPerSecond render rate
+	 * @param update          advances the game one tick
+	 * @param render          draws a frame; given the fraction (0 to 1) of a tick
+	 *                        elapsed since the last update
+	 */
+	public GameLoop(int ticksPerSecond, int framesPerSecond, Runnable update, DoubleConsumer render) {
+		this.tickNanos = SECOND / ticksPerSecond;
+		this.frameNanos = SECOND / framesPerSecond;
+		this.update = update;
+		this.render = render;
+	}
+
+	/** Starts the loop on a new thread. */
+	public void start() {
+		running = true;
+		thread = new Thread(this, "game-loop");
+		thread.start();
+	}
+
+	/** Asks the loop to stop after its current pass. */
+	public void stop() {
+		running = false;
+		LockSupport.unpark(thread);
+	}
+
+	@Override
+	public void run() {
+		long lastTick = System.nanoTime();
+		long nextTick = lastTick + tickNanos, nextFrame = lastTick;
+		long statsStart = lastTick;
+		int ticks = 0, frames = 0;
+
+		while (running) {
+			long now = System.nanoTime();
+
+			int updates = 0;
+			while (now >= nextTick && updates < MAX_UPDATES_PER_FRAME) {
+				update.run();
+				lastTick = nextTick;
+				nextTick += tickNanos;
+				updates++;
+				ticks++;
+			}
+			if (now >= nextTick) {
+				// Too far behind to catch up; carry on from now instead.
+				lastTick = now;
+				nextTick = now + tickNanos;
+			}
+
+			if (now >= nextFrame) {
+				render.accept(Math.min(1.0, (double) (now - lastTick) / tickNanos));
+				frames++;
+				nextFrame += frameNanos;
+				if (nextFrame <= now)
+					nextFrame = now + frameNanos;
+			}
+
+			if (now - statsStart >= SECOND) {
+				tickRate = ticks * (double) SECOND / (now - statsStart);
+				frameRate = frames * (double) SECOND / (now - statsStart);
+				statsStart = now;
+				ticks = frames = 0;
+			}
+
+			long wait = Math.min(nextTick, nextFrame) - System.nanoTime();
+			if (wait > 0)
+				LockSupport.parkNanos(this, wait);
+		}
+	}
+
+	/** Returns the updates run per second, measured over the last second. */
+	public double getTickRate() {
+		return tickRate;
+	}
+
+	/** Returns the frames rendered per second, measured over the last second. */
+	public double getFrameRate() {
+		return frameRate;
+	}
+}
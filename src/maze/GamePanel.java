@@ -5,284 +5,222 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.RenderingHints;
-import java.awt.event.KeyAdapter;
-import java.awt.event.KeyEvent;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JPanel;
-
-public class GamePanel extends JPanel implements Runnable {
+import javax.swing.SwingUtilities;
+
+/**
+ * Swing front end for a {@link GameWorld}: runs a {@link GameLoop}, forwards
+ * keyboard input, and renders the world after each tick.
+ *
+ * <p>
+ * Only damaged areas are repainted. After each tick the game thread records the
+ * previous and current draw bounds of every entity that moved or animates, and
+ * the HUD bar if anything it shows changed, in a {@link DamageTracker}. The
+ * Swing thread then paints each region on its own, skipping entities outside
+ * it. Level changes, state overlays and camera scrolls repaint the whole panel.
+ * Level loads rebuild the world's entity lists, so they run while holding the
+ * world's lock, which painting also holds.
+ *
+ * <p>
+ * The panel shows at most {@value #VIEW_COLS} x {@value #VIEW_ROWS} tiles; a
+ * {@link Camera} keeps larger maps centred on the player, and only the tiles
+ * and entities inside the view are drawn.
+ */
+public class GamePanel extends JPanel {
 
 	/** Target frames per second. */
 	public static final int FPS = 60;
 
-	/**
-	 * Internal game-state values that control input handling and overlay rendering.
-	 */
-	private enum GameState {
-		PLAYING, LEVEL_COMPLETE, GAME_OVER, WIN
-	}
-
-	private Thread gameThread;
-	private MazeMap map;
-	private Player player;
-	private final ArrayList<Zombie> zombies = new ArrayList<>();
-	private final ArrayList<Gem> gems = new ArrayList<>();
-	private final HUD hud = new HUD();
-
-	private GameState state = GameState.PLAYING;
-	private int currentLevel = 1;
-
-	/** Total number of playable levels. */
-	private static final int MAX_LEVEL = 2;
-
-	/** True once zombie hunt mode has been triggered this level. */
-	private boolean huntActivated = false;
-
-	/** Constructs the panel, loads level 1, and registers key listeners. */
+	/** Largest view, in tiles; the size of the built-in levels. */
+	public static final int VIEW_COLS = 21, VIEW_ROWS = 17;
+
+	private GameLoop loop;
+	private final GameWorld world = new GameWorld();
+	private final SceneRenderer renderer = new SceneRenderer();
+	private final GameInput input = new GameInput(world);
+
+	private final Camera camera;
+	private final Rectangle viewBounds;
+	private final DamageTracker damage;
+	private final AtomicBoolean paintPending = new AtomicBoolean();
+
+	/** What was on screen after the last tick; owned by the game thread. */
+	private MazeMap lastMap;
+	private GameWorld.State lastState;
+	private int hudLives, hudScore, hudKeys, hudCharge, hudBlockTicks, hudLevel, hudGems;
+	private boolean hudBlocking;
+	private final Rectangle playerBounds = new Rectangle();
+	private Rectangle[] zombieBounds = new Rectangle[0];
+	private Rectangle[] gemBounds = new Rectangle[0];
+	private final Rectangle tickBounds = new Rectangle();
+	private final Rectangle screenBounds = new Rectangle();
+
+	/** Constructs the panel around a world on level 1 and registers key listeners. */
 	public GamePanel() {
-		loadLevel(currentLevel);
-		setPreferredSize(new Dimension(map.getCols() * MazeMap.TILE_SIZE, map.getRows() * MazeMap.TILE_SIZE));
+		MazeMap map = world.getMap();
+		int width = Math.min(VIEW_COLS, map.getCols()) * MazeMap.TILE_SIZE;
+		int height = Math.min(VIEW_ROWS, map.getRows()) * MazeMap.TILE_SIZE;
+		camera = new Camera(width, height);
+		viewBounds = new Rectangle(0, 0, width, height);
+		damage = new DamageTracker(width, height);
+		setPreferredSize(new Dimension(width, height));
 		setBackground(Color.BLACK);
 		setFocusable(true);
 
-		addKeyListener(new KeyAdapter() {
-			@Override
-			public void keyPressed(KeyEvent e) {
-				handleKeyPress(e);
-			}
-
-			@Override
-			public void keyReleased(KeyEvent e) {
-				if (player != null)
-					player.keyReleased(e);
-			}
+		addKeyListener(input);
+		SpriteLoader.startLoading().thenRun(() -> {
+			damage.addAll();
+			requestPaint();
 		});
 	}
 
-	private void loadLevel(int level) {
-		currentLevel = level;
-		map = new MazeMap(level);
-		zombies.clear();
-		gems.clear();
-		player = null;
-
-		for (int row = 0; row < map.getRows(); row++) {
-			for (int col = 0; col < map.getCols(); col++) {
-				char tile = map.getTile(row, col);
-				float px = col * MazeMap.TILE_SIZE;
-				float py = row * MazeMap.TILE_SIZE;
-
-				switch (tile) {
-				case 'P' -> {
-					player = new Player(px, py);
-					map.setTile(row, col, '.');
-				}
-				case 'Z' -> {
-					zombies.add(new Zombie(px, py));
-					map.setTile(row, col, '.');
-				}
-				case 'G' -> {
-					gems.add(new Gem(px, py));
-					map.setTile(row, col, '.');
-				}
-				}
-			}
-		}
-
-		state = GameState.PLAYING;
-		huntActivated = false;
-	}
-
-	/** Creates and starts the background game-loop thread. */
-	public void startGameThread() {
-		gameThread = new Thread(this);
-		gameThread.start();
-	}
-
 	/**
-	 * Game loop: uses a delta-time accumulator to tick and repaint at {@value #FPS}
-	 * FPS. Sleeps 1 ms between iterations to reduce CPU load.
+	 * Starts the game loop at {@value #FPS} ticks per second. Frames are drawn at
+	 * tick positions rather than interpolated, since each one repaints only what
+	 * the last tick changed.
 	 */
-	@Override
-	public void run() {
-		double drawInterval = 1_000_000_000.0 / FPS;
-		double delta = 0;
-		long lastTime = System.nanoTime();
-
-		while (gameThread != null) {
-			long now = System.nanoTime();
-			delta += (now - lastTime) / drawInterval;
-			lastTime = now;
-
-			if (delta >= 1) {
-				update();
-				repaint();
-				delta--;
-			}
-
-			try {
-				Thread.sleep(1);
-			} catch (InterruptedException ignored) {
-			}
-		}
-	}
-
-	/**
-	 * Advances all game logic one tick. Only runs while state is {@code PLAYING}.
-	 */
-	private void update() {
-		if (state != GameState.PLAYING)
-			return;
-
-		player.update(map);
-		for (Zombie z : zombies)
-			z.update(map, player);
-
-		checkGemCollection();
-		checkHuntModeActivation();
-		checkZombieCollisions();
-		checkTrapTile();
-		checkWinCondition();
-		checkDeathCondition();
+	public void startGameThread() {
+		loop = new GameLoop(FPS, FPS, this::tick, alpha -> requestPaint());
+		loop.start();
 	}
 
-	/** Activates zombie hunt mode the first time all gems are collected. */
-	private void checkHuntModeActivation() {
-		if (!huntActivated && allGemsCollected()) {
-			huntActivated = true;
-			for (Zombie z : zombies)
-				z.activateHuntMode();
-		}
+	/** Returns the running game loop, for its measured rates. */
+	public GameLoop getGameLoop() {
+		return loop;
 	}
 
-	/** Awards points to the player for any newly touched gems. */
-	private void checkGemCollection() {
-		Rectangle playerBounds = player.getBounds();
-		for (Gem g : gems) {
-			if (!g.isCollected() && playerBounds.intersects(g.getBounds())) {
-				g.collect();
-				player.addScore(g.getPointValue());
-			}
+	/** Applies queued level changes, advances the world and records what changed on screen. */
+	private void tick() {
+		synchronized (world) {
+			input.applyLevelChange();
 		}
+		world.update();
+		collectDamage();
 	}
 
 	/**
-	 * Deals damage when a zombie overlaps the player. Skipped while the player has
-	 * invincibility frames active.
+	 * Moves the camera and records the screen areas changed by the last tick. Runs
+	 * on the game thread.
 	 */
-	private void checkZombieCollisions() {
-		if (player.isInvincible())
+	private void collectDamage() {
+		MazeMap map = world.getMap();
+		Player player = world.getPlayer();
+		if (map != lastMap)
+			camera.setMap(map);
+		boolean scrolled = player != null && camera.follow(player);
+		if (map != lastMap || world.getState() != lastState || player == null || scrolled) {
+			lastMap = map;
+			lastState = world.getState();
+			damage.addAll();
+			rememberBounds();
 			return;
-		Rectangle playerBounds = player.getBounds();
-		for (Zombie z : zombies) {
-			if (playerBounds.intersects(z.getBounds())) {
-				player.takeDamage();
-				z.catapult(player, map);
-				break;
-			}
 		}
-	}
-
-	/** Deals damage when the player stands on a trap tile ({@code 'T'}). */
-	private void checkTrapTile() {
-		int row = player.getPixelY() / MazeMap.TILE_SIZE;
-		int col = player.getPixelX() / MazeMap.TILE_SIZE;
-		if (map.getTile(row, col) == 'T')
-			player.takeDamage();
-	}
 
-	/**
-	 * Checks whether the player has collected all gems and stepped on the exit tile
-	 * ({@code 'E'}). Transitions to {@code LEVEL_COMPLETE} or {@code WIN}
-	 * accordingly.
-	 */
-	private void checkWinCondition() {
-		if (allGemsCollected()) {
-			int row = player.getPixelY() / MazeMap.TILE_SIZE;
-			int col = player.getPixelX() / MazeMap.TILE_SIZE;
-			if (map.getTile(row, col) == 'E') {
-				state = (currentLevel < MAX_LEVEL) ? GameState.LEVEL_COMPLETE : GameState.WIN;
+		// The player and zombies animate even when standing still.
+		long cam = camera.getPosition();
+		damageOnScreen(playerBounds, cam);
+		damageOnScreen(player.getDrawBounds(playerBounds), cam);
+		List<Zombie> zombies = world.getZombies();
+		List<Gem> gems = world.getGems();
+		if (zombies.size() != zombieBounds.length || gems.size() != gemBounds.length) {
+			// Entity lists changed without a map change; start over from a full repaint.
+			damage.addAll();
+			rememberBounds();
+			return;
+		}
+		for (int i = 0; i < zombies.size(); i++) {
+			damageOnScreen(zombieBounds[i], cam);
+			damageOnScreen(zombies.get(i).getDrawBounds(zombieBounds[i]), cam);
+		}
+		for (int i = 0; i < gems.size(); i++) {
+			gems.get(i).getDrawBounds(tickBounds);
+			if (!tickBounds.equals(gemBounds[i])) {
+				damageOnScreen(gemBounds[i], cam);
+				damageOnScreen(tickBounds, cam);
+				gemBounds[i].setBounds(tickBounds);
 			}
 		}
-	}
 
-	/** Transitions to {@code GAME_OVER} when the player has no lives left. */
-	private void checkDeathCondition() {
-		if (player.getLives() <= 0)
-			state = GameState.GAME_OVER;
+		if (hudChanged(player))
+			damage.add(new Rectangle(0, 0, getWidth(), HUD.BAR_HEIGHT));
+	}
+
+	/** Damages the visible part of a map-space rectangle. */
+	private void damageOnScreen(Rectangle r, long cam) {
+		screenBounds.setBounds(r.x - Camera.x(cam), r.y - Camera.y(cam), r.width, r.height);
+		Rectangle.intersect(screenBounds, viewBounds, screenBounds);
+		damage.add(screenBounds);
+	}
+
+	/** Starts tracking a newly loaded level's entities from their current bounds. */
+	private void rememberBounds() {
+		List<Zombie> zombies = world.getZombies();
+		zombieBounds = new Rectangle[zombies.size()];
+		for (int i = 0; i < zombieBounds.length; i++)
+			zombieBounds[i] = zombies.get(i).getDrawBounds(new Rectangle());
+		List<Gem> gems = world.getGems();
+		gemBounds = new Rectangle[gems.size()];
+		for (int i = 0; i < gemBounds.length; i++)
+			gemBounds[i] = gems.get(i).getDrawBounds(new Rectangle());
+		if (world.getPlayer() != null) {
+			world.getPlayer().getDrawBounds(playerBounds);
+			hudChanged(world.getPlayer());
+		}
 	}
 
 	/**
-	 * Returns {@code true} if every gem on the current level has been collected.
+	 * Compares everything the HUD bar shows with the values last seen and records
+	 * the new ones.
+	 *
+	 * @return {@code true} if any value changed, so the bar must be redrawn
 	 */
-	private boolean allGemsCollected() {
-		for (Gem g : gems)
-			if (!g.isCollected())
-				return false;
+	private boolean hudChanged(Player player) {
+		if (hudLives == player.getLives() && hudScore == player.getScore() && hudKeys == player.getKeysHeld()
+				&& hudBlocking == player.isBlocking() && hudCharge == player.getBlockCharge()
+				&& hudBlockTicks == player.getBlockTicks() && hudLevel == world.getCurrentLevel()
+				&& hudGems == world.gemsRemaining())
+			return false;
+		hudLives = player.getLives();
+		hudScore = player.getScore();
+		hudKeys = player.getKeysHeld();
+		hudBlocking = player.isBlocking();
+		hudCharge = player.getBlockCharge();
+		hudBlockTicks = player.getBlockTicks();
+		hudLevel = world.getCurrentLevel();
+		hudGems = world.gemsRemaining();
 		return true;
 	}
 
-	/** Returns the number of uncollected gems on the current level. */
-	private int gemsRemaining() {
-		int count = 0;
-		for (Gem g : gems)
-			if (!g.isCollected())
-				count++;
-		return count;
+	/** Schedules one paint of the collected damage unless one is already queued. */
+	private void requestPaint() {
+		if (paintPending.compareAndSet(false, true))
+			SwingUtilities.invokeLater(this::paintDamage);
 	}
 
-	private void handleKeyPress(KeyEvent e) {
-		switch (state) {
-		case PLAYING -> {
-			if (player != null)
-				player.keyPressed(e);
-		}
-		case GAME_OVER, WIN -> {
-			if (e.getKeyCode() == KeyEvent.VK_R)
-				loadLevel(1);
-		}
-		case LEVEL_COMPLETE -> {
-			if (e.getKeyCode() == KeyEvent.VK_N) {
-				int savedScore = player.getScore();
-				loadLevel(currentLevel + 1);
-				player.addScore(savedScore);
-			}
-		}
-		}
+	/** Paints each damaged region separately. Runs on the Swing thread. */
+	private void paintDamage() {
+		paintPending.set(false);
+		List<Rectangle> regions = damage.take();
+		if (regions == null)
+			paintImmediately(0, 0, getWidth(), getHeight());
+		else
+			for (Rectangle r : regions)
+				paintImmediately(r);
 	}
 
 	/**
-	 * Renders the scene: map → gems → zombies → player → HUD → overlay.
+	 * Renders the scene through the camera; see {@link SceneRenderer}.
 	 *
 	 * @param g the graphics context provided by Swing
 	 */
 	@Override
 	public void paintComponent(Graphics g) {
 		super.paintComponent(g);
-
-		Graphics2D g2 = (Graphics2D) g;
-		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-		map.draw(g);
-		for (Gem gem : gems)
-			gem.draw(g);
-		for (Zombie z : zombies)
-			z.draw(g);
-		if (player != null)
-			player.draw(g);
-
-		if (player != null)
-			hud.draw(g, player, currentLevel, gemsRemaining());
-
-		int w = getWidth(), h = getHeight();
-		switch (state) {
-		case GAME_OVER -> hud.drawGameOver(g, w, h, player.getScore());
-		case LEVEL_COMPLETE -> hud.drawLevelComplete(g, w, h, currentLevel, player.getScore());
-		case WIN -> hud.drawWin(g, w, h, player != null ? player.getScore() : 0);
-		default -> {
-		}
+		synchronized (world) {
+			renderer.render((Graphics2D) g, world, camera.getPosition(), getWidth(), getHeight());
 		}
 	}
-}
\ No newline at end of file
+}
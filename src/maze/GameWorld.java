@@ -0,0 +1,307 @@
+package maze;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless game simulation: owns the map, player, zombies and gems and advances
+ * them one tick at a time.
+ *
+ * <p>
+ * Nothing here touches the display. Sprites and tile images are only loaded the
+ * first time something is drawn, so a world can be created and stepped as fast
+ * as the CPU allows on a machine without a screen. {@link GamePanel} renders a
+ * world and forwards keyboard input to it.
+ */
+public class GameWorld {
+
+	/** Game-state values that control input handling and overlay rendering. */
+	public enum State {
+		PLAYING, LEVEL_COMPLETE, GAME_OVER, WIN
+	}
+
+	private MazeMap map;
+	private Player player;
+	private final ArrayList<Zombie> zombies = new ArrayList<>();
+	private final ArrayList<Gem> gems = new ArrayList<>();
+	private final ZombieUpdater zombieUpdater = new ZombieUpdater();
+
+	/** Zombies and gems filed by tile; ids match their list indices. */
+	private SpatialGrid zombieGrid;
+	private SpatialGrid gemGrid;
+
+	/** Number of gems not yet collected on this level. */
+	private int gemsLeft = 0;
+
+	/** Source of per-zombie seeds, so a seeded world replays identically. */
+	private final Random rand;
+
+	private State state = State.PLAYING;
+	private int currentLevel = 1;
+	private long tick = 0;
+
+	/** True once zombie hunt mode has been triggered this level. */
+	private boolean huntActivated = false;
+
+	/** Next level, loaded when this one was cleared so a bad file cannot stop play. */
+	private MazeMap nextMap;
+
+	/** Creates a world on level 1 with random zombie behaviour. */
+	public GameWorld() {
+		this(new Random().nextLong());
+	}
+
+	/**
+	 * Creates a world on level 1 whose zombies are driven by the given seed.
+	 *
+	 * @param seed seed for every zombie's random walk
+	 */
+	public GameWorld(long seed) {
+		rand = new Random(seed);
+		loadLevel(1);
+	}
+
+	/**
+	 * Loads a level, replacing spawn tiles with entities.
+	 *
+	 * @param level 1-based level number
+	 */
+	public void loadLevel(int level) {
+		loadMap(new MazeMap(level));
+	}
+
+	/**
+	 * Starts play on the given map, replacing spawn tiles with entities. Used for
+	 * generated maps; the current level becomes the map's level number.
+	 *
+	 * @param map the map to play on
+	 */
+	public void loadMap(MazeMap map) {
+		this.map = map;
+		currentLevel = map.getLevelNumber();
+		zombies.clear();
+		gems.clear();
+		player = null;
+		zombieGrid = new SpatialGrid(map.getRows(), map.getCols());
+		gemGrid = new SpatialGrid(map.getRows(), map.getCols());
+
+		for (int row = 0; row < map.getRows(); row++) {
+			for (int col = 0; col < map.getCols(); col++) {
+				char tile = map.getTile(row, col);
+				float px = col * MazeMap.TILE_SIZE;
+				float py = row * MazeMap.TILE_SIZE;
+
+				switch (tile) {
+				case 'P' -> {
+					player = new Player(px, py);
+					map.setTile(row, col, '.');
+				}
+				case 'Z' -> {
+					zombies.add(new Zombie(px, py, rand.nextLong()));
+					zombieGrid.add((int) px, (int) py);
+					map.setTile(row, col, '.');
+				}
+				case 'G' -> {
+					gems.add(new Gem(px, py));
+					gemGrid.add((int) px, (int) py);
+					map.setTile(row, col, '.');
+				}
+				}
+			}
+		}
+
+		gemsLeft = gems.size();
+		nextMap = null;
+		state = State.PLAYING;
+		huntActivated = false;
+	}
+
+	/** Starts a new game from level 1. */
+	public void restart() {
+		loadLevel(1);
+	}
+
+	/**
+	 * Moves on to the next level, carrying the player's score over. After the
+	 * world entered {@code LEVEL_COMPLETE} this uses the level already loaded then.
+	 *
+	 * @throws UncheckedIOException if the next level has to be loaded and cannot be
+	 */
+	public void advanceLevel() {
+		int savedScore = player.getScore();
+		if (nextMap != null)
+			loadMap(nextMap);
+		else
+			loadLevel(currentLevel + 1);
+		player.addScore(savedScore);
+	}
+
+	/**
+	 * Advances all game logic one tick. Only runs while state is {@code PLAYING}.
+	 */
+	public void update() {
+		if (state != State.PLAYING)
+			return;
+		tick++;
+
+		player.update(map);
+		PlayerSnapshot snapshot = player.snapshot();
+		if (huntActivated)
+			map.getFlowField().setGoal(snapshot.row(), snapshot.col());
+		zombieUpdater.update(zombies, map, snapshot);
+		for (int i = 0; i < zombies.size(); i++) {
+			Zombie z = zombies.get(i);
+			zombieGrid.move(i, z.getPixelX(), z.getPixelY());
+		}
+
+		checkGemCollection();
+		checkHuntModeActivation();
+		checkZombieCollisions();
+		checkTrapTile();
+		checkWinCondition();
+		checkDeathCondition();
+	}
+
+	/** Activates zombie hunt mode the first time all gems are collected. */
+	private void checkHuntModeActivation() {
+		if (!huntActivated && allGemsCollected()) {
+			huntActivated = true;
+			for (Zombie z : zombies)
+				z.activateHuntMode();
+		}
+	}
+
+	/** Awards points to the player for any newly touched gems nearby. */
+	private void checkGemCollection() {
+		int hits = gemGrid.queryNear(player.getPixelX(), player.getPixelY(), 1);
+		for (int i = 0; i < hits; i++) {
+			int id = gemGrid.getHit(i);
+			Gem g = gems.get(id);
+			if (player.overlaps(g)) {
+				g.collect();
+				player.addScore(g.getPointValue());
+				gemGrid.remove(id);
+				gemsLeft--;
+			}
+		}
+	}
+
+	/**
+	 * Deals damage when a zombie overlaps the player. Skipped while the player has
+	 * invincibility frames active. When several zombies touch the player, the
+	 * earliest spawned one hits, as in a scan of the whole list.
+	 */
+	private void checkZombieCollisions() {
+		if (player.isInvincible())
+			return;
+		int hits = zombieGrid.queryNear(player.getPixelX(), player.getPixelY(), 1);
+		int first = -1;
+		for (int i = 0; i < hits; i++) {
+			int id = zombieGrid.getHit(i);
+			if ((first < 0 || id < first) && player.overlaps(zombies.get(id)))
+				first = id;
+		}
+		if (first >= 0) {
+			Zombie z = zombies.get(first);
+			player.takeDamage();
+			z.catapult(player, map);
+			zombieGrid.move(first, z.getPixelX(), z.getPixelY());
+		}
+	}
+
+	/** Deals damage when the player stands on a trap tile ({@code 'T'}). */
+	private void checkTrapTile() {
+		int row = player.getPixelY() / MazeMap.TILE_SIZE;
+		int col = player.getPixelX() / MazeMap.TILE_SIZE;
+		if (map.getTile(row, col) == 'T')
+			player.takeDamage();
+	}
+
+	/**
+	 * Checks whether the player has collected all gems and stepped on the exit tile
+	 * ({@code 'E'}). Transitions to {@code LEVEL_COMPLETE} if the next level
+	 * exists and loads, otherwise to {@code WIN}.
+	 */
+	private void checkWinCondition() {
+		if (allGemsCollected()) {
+			int row = player.getPixelY() / MazeMap.TILE_SIZE;
+			int col = player.getPixelX() / MazeMap.TILE_SIZE;
+			if (map.getTile(row, col) == 'E') {
+				nextMap = loadNextLevel();
+				state = nextMap != null ? State.LEVEL_COMPLETE : State.WIN;
+			}
+		}
+	}
+
+	/**
+	 * Loads the level after the current one, or returns {@code null} if there is
+	 * none or it cannot be loaded. A broken level ends the game as a win rather
+	 * than failing later on the game thread.
+	 */
+	private MazeMap loadNextLevel() {
+		if (!MazeMap.hasLevel(currentLevel + 1))
+			return null;
+		try {
+			return new MazeMap(currentLevel + 1);
+		} catch (UncheckedIOException e) {
+			System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+			return null;
+		}
+	}
+
+	/** Transitions to {@code GAME_OVER} when the player has no lives left. */
+	private void checkDeathCondition() {
+		if (player.getLives() <= 0)
+			state = State.GAME_OVER;
+	}
+
+	/**
+	 * Returns {@code true} if every gem on the current level has been collected.
+	 */
+	public boolean allGemsCollected() {
+		return gemsLeft == 0;
+	}
+
+	/** Returns the number of uncollected gems on the current level. */
+	public int gemsRemaining() {
+		return gemsLeft;
+	}
+
+	/** Returns the current level's map. */
+	public MazeMap getMap() {
+		return map;
+	}
+
+	/** Returns the player, or {@code null} if the level has no spawn tile. */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/** Returns a read-only view of the level's zombies. */
+	public List<Zombie> getZombies() {
+		return Collections.unmodifiableList(zombies);
+	}
+
+	/** Returns a read-only view of the level's gems. */
+	public List<Gem> getGems() {
+		return Collections.unmodifiableList(gems);
+	}
+
+	/** Returns the current game state. */
+	public State getState() {
+		return state;
+	}
+
+	/** Returns the 1-based level currently loaded. */
+	public int getCurrentLevel() {
+		return currentLevel;
+	}
+
+	/** Returns the number of ticks simulated while playing. */
+	public long getTick() {
+		return tick;
+	}
+}
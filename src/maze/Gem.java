@@ -1,15 +1,14 @@
 package maze;
 
-import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
+import java.awt.Rectangle;
 
 /**
  * A collectible gem worth
  *
  * <p>
- * Bobs gently up and down while uncollected. Falls back to a drawn diamond
- * shape if the sprite image is missing.
+ * Bobs gently up and down while uncollected. Drawn from the shared atlas, which
+ * falls back to a drawn diamond if the sprite image is missing.
  */
 public class Gem extends Entity implements Collectible {
 
@@ -19,9 +18,6 @@ public class Gem extends Entity implements Collectible {
 	private boolean collected = false;
 	private int animTick = 0;
 
-	/** Shared sprite for all gems; {@code null} if the file is missing. */
-	private static final BufferedImage SPRITE = SpriteLoader.loadGemSprite(MazeMap.TILE_SIZE);
-
 	/**
 	 * @param x X position in pixels
 	 * @param y Y position in pixels
@@ -51,6 +47,21 @@ public class Gem extends Entity implements Collectible {
 		animTick++;
 	}
 
+	/** Follows the bob offset; empty once collected. */
+	@Override
+	public Rectangle getDrawBounds(Rectangle out) {
+		if (collected)
+			out.setBounds(getPixelX(), getPixelY(), 0, 0);
+		else
+			out.setBounds(getPixelX(), getPixelY() + bobOffset(), MazeMap.TILE_SIZE, MazeMap.TILE_SIZE);
+		return out;
+	}
+
+	/** Returns the current vertical bob in pixels. */
+	private int bobOffset() {
+		return (int) (Math.sin(animTick * 0.07) * 2);
+	}
+
 	/**
 	 * Draws the gem with a sinusoidal vertical bob. Does nothing if already
 	 * collected.
@@ -60,22 +71,6 @@ public class Gem extends Entity implements Collectible {
 		if (collected)
 			return;
 
-		int px = getPixelX(), py = getPixelY(), s = MazeMap.TILE_SIZE;
-		int bob = (int) (Math.sin(animTick * 0.07) * 2);
-
-		if (SPRITE != null) {
-			g.drawImage(SPRITE, px, py + bob, null);
-		} else {
-			// Procedural diamond fallback
-			int cx = px + s / 2, cy = py + s / 2 + bob, r = s / 2 - 5;
-			int[] xp = { cx, cx + r, cx, cx - r };
-			int[] yp = { cy - r, cy, cy + r, cy };
-			g.setColor(new Color(255, 215, 0));
-			g.fillPolygon(xp, yp, 4);
-			g.setColor(new Color(255, 255, 180));
-			g.fillOval(cx - r / 3, cy - r / 2, r / 3, r / 3);
-			g.setColor(new Color(200, 150, 0));
-			g.drawPolygon(xp, yp, 4);
-		}
+		SpriteLoader.getAtlas().draw(g, SpriteLoader.GEM_SPRITE, getPixelX(), getPixelY() + bobOffset());
 	}
 }
\ No newline at end of file
@@ -1,98 +1,184 @@
 package maze;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 
+/**
+ * Draws the status bar and the end-of-level overlays.
+ *
+ * <p>
+ * Both are rendered into cached images that are rebuilt only when a value they
+ * show changes; otherwise each frame is a single blit. Colours, fonts and heart
+ * shapes are constants, so a frame that reuses the caches allocates nothing.
+ * The images are rendered at the graphics context's scale and blitted without
+ * resampling, so text stays sharp when zoomed or on a HiDPI screen; rotated
+ * contexts are drawn to directly.
+ */
 public class HUD {
 
+	/** Height of the status bar drawn across the top of the screen. */
+	public static final int BAR_HEIGHT = 30;
+
+	private static final int BLOCK_BAR_WIDTH = 120;
+
 	private static final Color BG_COLOR = new Color(0, 0, 0, 180);
 	private static final Color TEXT_COLOR = Color.WHITE;
 	private static final Color SCORE_COLOR = new Color(255, 215, 0);
 	private static final Color KEY_COLOR = new Color(200, 160, 60);
+	private static final Color HEART_COLOR = new Color(220, 50, 50);
+	private static final Color LOST_HEART_COLOR = new Color(80, 40, 40);
+	private static final Color BLOCK_TRACK_COLOR = new Color(30, 30, 50);
+	private static final Color BLOCKING_COLOR = new Color(80, 160, 255);
+	private static final Color BLOCK_READY_COLOR = new Color(100, 220, 255);
+	private static final Color BLOCK_CHARGING_COLOR = new Color(60, 100, 160);
+	private static final Color BLOCK_BORDER_COLOR = new Color(150, 200, 255);
+	private static final Color GAME_OVER_COLOR = new Color(180, 30, 30, 220);
+	private static final Color LEVEL_COMPLETE_COLOR = new Color(30, 140, 60, 220);
+	private static final Color WIN_COLOR = new Color(30, 100, 200, 220);
+	private static final Color HINT_COLOR = new Color(200, 200, 200);
 	private static final Font LABEL_FONT = new Font("Monospaced", Font.BOLD, 13);
 	private static final Font VALUE_FONT = new Font("Monospaced", Font.PLAIN, 13);
+	private static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 26);
+	private static final Font SUBTITLE_FONT = new Font("SansSerif", Font.PLAIN, 16);
+
+	/** Heart outline relative to its top-left corner. */
+	private static final int[] HEART_XP = { 0, 13, 6 }, HEART_YP = { 6, 6, 15 };
+
+	private static final int GAME_OVER = 1, LEVEL_COMPLETE = 2, WIN = 3;
+
+	/** Size of the overlay box; the cached image is one pixel larger for its border. */
+	private static final int OVERLAY_WIDTH = 320, OVERLAY_HEIGHT = 120;
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
 
-	public void draw(Graphics g, Player player, int level, int gemsLeft) {
-		int barHeight = 30;
-		int panelW = MazeMap.TILE_SIZE * 21;
+	/** Cached status bar, the values it was drawn with and its device scale. */
+	private BufferedImage bar;
+	private int barLives, barScore, barLevel, barGems, barKeys, barFill, barWidth;
+	private boolean barBlocking, barReady;
+	private double barScaleX, barScaleY;
 
+	/** Cached overlay, the values it was drawn with and its device scale. */
+	private BufferedImage overlay;
+	private int overlayKind, overlayLevel, overlayScore;
+	private double overlayScaleX, overlayScaleY;
+
+	/**
+	 * Draws the status bar across the top of the screen.
+	 *
+	 * @param width width of the screen in pixels
+	 */
+	public void draw(Graphics g, Player player, int level, int gemsLeft, int width) {
+		boolean blocking = player.isBlocking();
+		boolean ready = player.getBlockCharge() >= Player.BLOCK_MAX_CHARGE;
+		int fill = (int) (BLOCK_BAR_WIDTH * blockRatio(player));
+		Graphics2D g2 = (Graphics2D) g;
+		AffineTransform t = g2.getTransform();
+		boolean changed = barLives != player.getLives() || barScore != player.getScore() || barLevel != level
+				|| barGems != gemsLeft || barKeys != player.getKeysHeld() || barFill != fill
+				|| barBlocking != blocking || barReady != ready || barWidth != width;
+		barLives = player.getLives();
+		barScore = player.getScore();
+		barLevel = level;
+		barGems = gemsLeft;
+		barKeys = player.getKeysHeld();
+		barFill = fill;
+		barBlocking = blocking;
+		barReady = ready;
+		barWidth = width;
+		if (!isCacheable(t)) {
+			Graphics2D direct = (Graphics2D) g2.create();
+			direct.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			renderBar(direct);
+			direct.dispose();
+			return;
+		}
+		if (bar == null || changed || barScaleX != t.getScaleX() || barScaleY != t.getScaleY()) {
+			barScaleX = t.getScaleX();
+			barScaleY = t.getScaleY();
+			int w = deviceSize(width, barScaleX), h = deviceSize(BAR_HEIGHT, barScaleY);
+			if (bar == null || bar.getWidth() != w || bar.getHeight() != h)
+				bar = g2.getDeviceConfiguration().createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+			Graphics2D cg = createCacheGraphics(bar, barScaleX, barScaleY);
+			renderBar(cg);
+			cg.dispose();
+		}
+		blit(g2, t, bar, 0, 0);
+	}
+
+	/** Draws the status bar from the recorded values. */
+	private void renderBar(Graphics2D g) {
 		g.setColor(BG_COLOR);
-		g.fillRect(0, 0, panelW, barHeight);
+		g.fillRect(0, 0, barWidth, BAR_HEIGHT);
 
 		g.setFont(LABEL_FONT);
 		int y = 20;
 
 		g.setColor(TEXT_COLOR);
 		g.drawString("LIVES:", 8, y);
-		drawHearts(g, 65, 8, player.getLives());
+		drawHearts(g, 65, 8, barLives);
 
 		g.setColor(TEXT_COLOR);
 		g.drawString("SCORE:", 140, y);
 		g.setColor(SCORE_COLOR);
 		g.setFont(VALUE_FONT);
-		g.drawString(String.valueOf(player.getScore()), 200, y);
+		g.drawString(String.valueOf(barScore), 200, y);
 
 		g.setColor(TEXT_COLOR);
 		g.setFont(LABEL_FONT);
-		g.drawString("LVL:" + level, 260, y);
+		g.drawString("LVL:" + barLevel, 260, y);
 
 		g.setColor(TEXT_COLOR);
 		g.drawString("GEMS:", 310, y);
 		g.setColor(SCORE_COLOR);
 		g.setFont(VALUE_FONT);
-		g.drawString(String.valueOf(gemsLeft), 365, y);
+		g.drawString(String.valueOf(barGems), 365, y);
 
 		g.setColor(TEXT_COLOR);
 		g.setFont(LABEL_FONT);
 		g.drawString("KEYS:", 400, y);
 		g.setColor(KEY_COLOR);
 		g.setFont(VALUE_FONT);
-		g.drawString(String.valueOf(player.getKeysHeld()), 450, y);
+		g.drawString(String.valueOf(barKeys), 450, y);
 
-		drawBlockBar(g, 480, 6, player);
+		drawBlockBar(g, 480, 6);
 	}
 
 	/**
-	 * Draws the block charge bar. Shows drain progress while blocking, or recharge
-	 * progress otherwise.
+	 * Returns how full the block bar is: drain progress while blocking, or
+	 * recharge progress otherwise.
 	 */
-	private void drawBlockBar(Graphics g, int bx, int by, Player player) {
-		int barW = 120, barH = 10;
-		boolean blocking = player.isBlocking();
-		int charge = player.getBlockCharge();
-		int maxCharge = Player.BLOCK_MAX_CHARGE;
+	private static float blockRatio(Player player) {
+		if (player.isBlocking())
+			return (float) player.getBlockTicks() / Player.BLOCK_DURATION_TICKS;
+		return Math.min(1f, (float) player.getBlockCharge() / Player.BLOCK_MAX_CHARGE);
+	}
 
-		g.setColor(new Color(30, 30, 50));
-		g.fillRoundRect(bx, by, barW, barH, 4, 4);
+	/** Draws the block charge bar from the recorded fill and state. */
+	private void drawBlockBar(Graphics g, int bx, int by) {
+		int barW = BLOCK_BAR_WIDTH, barH = 10;
 
-		float ratio;
-		Color fillColor;
-		if (blocking) {
-			ratio = (float) player.getBlockTicks() / Player.BLOCK_DURATION_TICKS;
-			fillColor = new Color(80, 160, 255);
-		} else if (charge >= maxCharge) {
-			ratio = 1f;
-			fillColor = new Color(100, 220, 255);
-		} else {
-			ratio = (float) charge / maxCharge;
-			fillColor = new Color(60, 100, 160);
-		}
+		g.setColor(BLOCK_TRACK_COLOR);
+		g.fillRoundRect(bx, by, barW, barH, 4, 4);
 
-		int fillW = (int) (barW * ratio);
-		if (fillW > 0) {
-			g.setColor(fillColor);
-			g.fillRoundRect(bx, by, fillW, barH, 4, 4);
+		if (barFill > 0) {
+			g.setColor(barBlocking ? BLOCKING_COLOR : barReady ? BLOCK_READY_COLOR : BLOCK_CHARGING_COLOR);
+			g.fillRoundRect(bx, by, barFill, barH, 4, 4);
 		}
 
-		g.setColor(new Color(150, 200, 255));
+		g.setColor(BLOCK_BORDER_COLOR);
 		g.drawRoundRect(bx, by, barW, barH, 4, 4);
 
 		g.setColor(TEXT_COLOR);
 		g.setFont(LABEL_FONT);
-		String label = blocking ? "BLOCK" : (charge >= maxCharge ? "BLOCK" : "RECHARGE");
-		g.drawString(label, bx + barW + 4, by + barH);
+		g.drawString(barBlocking || barReady ? "BLOCK" : "RECHARGE", bx + barW + 4, by + barH);
 	}
 
 	/**
@@ -106,12 +192,12 @@ public class HUD {
 	private void drawHearts(Graphics g, int startX, int startY, int lives) {
 		for (int i = 0; i < 3; i++) {
 			int hx = startX + i * 20, hy = startY + 2;
-			g.setColor(i < lives ? new Color(220, 50, 50) : new Color(80, 40, 40));
+			g.setColor(i < lives ? HEART_COLOR : LOST_HEART_COLOR);
 			g.fillOval(hx, hy, 8, 8);
 			g.fillOval(hx + 5, hy, 8, 8);
-			int[] hxp = { hx, hx + 13, hx + 6 };
-			int[] hyp = { hy + 6, hy + 6, hy + 15 };
-			g.fillPolygon(hxp, hyp, 3);
+			g.translate(hx, hy);
+			g.fillPolygon(HEART_XP, HEART_YP, 3);
+			g.translate(-hx, -hy);
 		}
 	}
 
@@ -121,8 +207,7 @@ public class HUD {
 	 * @param score the player's final score
 	 */
 	public void drawGameOver(Graphics g, int width, int height, int score) {
-		drawOverlay(g, width, height, new Color(180, 30, 30, 220), "GAME OVER", "Score: " + score,
-				"Press R to restart");
+		drawOverlay(g, width, height, GAME_OVER, 0, score);
 	}
 
 	/**
@@ -132,8 +217,7 @@ public class HUD {
 	 * @param score the player's current score
 	 */
 	public void drawLevelComplete(Graphics g, int width, int height, int level, int score) {
-		drawOverlay(g, width, height, new Color(30, 140, 60, 220), "LEVEL " + level + " COMPLETE!", "Score: " + score,
-				"Press N for next level");
+		drawOverlay(g, width, height, LEVEL_COMPLETE, level, score);
 	}
 
 	/**
@@ -142,29 +226,120 @@ public class HUD {
 	 * @param score the player's final score
 	 */
 	public void drawWin(Graphics g, int width, int height, int score) {
-		drawOverlay(g, width, height, new Color(30, 100, 200, 220), "YOU WIN!", "Final Score: " + score,
-				"Press R to play again");
+		drawOverlay(g, width, height, WIN, 0, score);
 	}
 
 	/**
-	 * Draws a centred rounded-rectangle overlay with a title, subtitle, and hint.
+	 * Blits a centred overlay, re-rendering the cached image if it shows a
+	 * different overlay or score.
 	 */
-	private void drawOverlay(Graphics g, int w, int h, Color bg, String title, String sub, String hint) {
-		int bw = 320, bh = 120, bx = (w - bw) / 2, by = (h - bh) / 2;
+	private void drawOverlay(Graphics g, int w, int h, int kind, int level, int score) {
+		int x = (w - OVERLAY_WIDTH) / 2, y = (h - OVERLAY_HEIGHT) / 2;
+		Graphics2D g2 = (Graphics2D) g;
+		AffineTransform t = g2.getTransform();
+		boolean changed = overlayKind != kind || overlayLevel != level || overlayScore != score;
+		overlayKind = kind;
+		overlayLevel = level;
+		overlayScore = score;
+		if (!isCacheable(t)) {
+			Graphics2D direct = (Graphics2D) g2.create();
+			direct.translate(x, y);
+			direct.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			renderOverlay(direct);
+			direct.dispose();
+			return;
+		}
+		if (overlay == null || changed || overlayScaleX != t.getScaleX() || overlayScaleY != t.getScaleY()) {
+			overlayScaleX = t.getScaleX();
+			overlayScaleY = t.getScaleY();
+			int iw = deviceSize(OVERLAY_WIDTH + 1, overlayScaleX), ih = deviceSize(OVERLAY_HEIGHT + 1, overlayScaleY);
+			if (overlay == null || overlay.getWidth() != iw || overlay.getHeight() != ih)
+				overlay = g2.getDeviceConfiguration().createCompatibleImage(iw, ih, Transparency.TRANSLUCENT);
+			Graphics2D cg = createCacheGraphics(overlay, overlayScaleX, overlayScaleY);
+			renderOverlay(cg);
+			cg.dispose();
+		}
+		blit(g2, t, overlay, x, y);
+	}
+
+	/** Draws the overlay: a rounded rectangle with a title, subtitle, and hint. */
+	private void renderOverlay(Graphics2D g) {
+		int bw = OVERLAY_WIDTH, bh = OVERLAY_HEIGHT;
+		Color bg;
+		String title, sub, hint;
+		switch (overlayKind) {
+		case GAME_OVER -> {
+			bg = GAME_OVER_COLOR;
+			title = "GAME OVER";
+			sub = "Score: " + overlayScore;
+			hint = "Press R to restart";
+		}
+		case LEVEL_COMPLETE -> {
+			bg = LEVEL_COMPLETE_COLOR;
+			title = "LEVEL " + overlayLevel + " COMPLETE!";
+			sub = "Score: " + overlayScore;
+			hint = "Press N for next level";
+		}
+		default -> {
+			bg = WIN_COLOR;
+			title = "YOU WIN!";
+			sub = "Final Score: " + overlayScore;
+			hint = "Press R to play again";
+		}
+		}
 
 		g.setColor(bg);
-		g.fillRoundRect(bx, by, bw, bh, 20, 20);
+		g.fillRoundRect(0, 0, bw, bh, 20, 20);
 		g.setColor(Color.WHITE);
-		g.drawRoundRect(bx, by, bw, bh, 20, 20);
+		g.drawRoundRect(0, 0, bw, bh, 20, 20);
 
-		g.setFont(new Font("SansSerif", Font.BOLD, 26));
+		g.setFont(TITLE_FONT);
 		FontMetrics fm = g.getFontMetrics();
-		g.drawString(title, bx + (bw - fm.stringWidth(title)) / 2, by + 42);
+		g.drawString(title, (bw - fm.stringWidth(title)) / 2, 42);
 
-		g.setFont(new Font("SansSerif", Font.PLAIN, 16));
+		g.setFont(SUBTITLE_FONT);
 		fm = g.getFontMetrics();
-		g.drawString(sub, bx + (bw - fm.stringWidth(sub)) / 2, by + 68);
-		g.setColor(new Color(200, 200, 200));
-		g.drawString(hint, bx + (bw - fm.stringWidth(hint)) / 2, by + 94);
+		g.drawString(sub, (bw - fm.stringWidth(sub)) / 2, 68);
+		g.setColor(HINT_COLOR);
+		g.drawString(hint, (bw - fm.stringWidth(hint)) / 2, 94);
+	}
+
+	/**
+	 * Returns {@code true} if a context only scales and translates, so a cache
+	 * rendered at its scale can be blitted pixel for pixel.
+	 */
+	private static boolean isCacheable(AffineTransform t) {
+		return (t.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) == 0
+				&& t.getScaleX() > 0 && t.getScaleY() > 0;
+	}
+
+	/** Returns the device pixels needed to cover a user-space length at a scale. */
+	private static int deviceSize(int length, double scale) {
+		return Math.max(1, (int) Math.ceil(length * scale));
+	}
+
+	/**
+	 * Draws a cache image at the device pixel where the given user-space point
+	 * lands, without resampling it.
+	 */
+	private static void blit(Graphics2D g, AffineTransform t, BufferedImage image, int x, int y) {
+		g.setTransform(IDENTITY);
+		g.drawImage(image, (int) Math.round(x * t.getScaleX() + t.getTranslateX()),
+				(int) Math.round(y * t.getScaleY() + t.getTranslateY()), null);
+		g.setTransform(t);
+	}
+
+	/**
+	 * Clears a cache image and returns an antialiased graphics context on it that
+	 * maps user space to the image at the given scale.
+	 */
+	private static Graphics2D createCacheGraphics(BufferedImage image, double scaleX, double scaleY) {
+		Graphics2D g = image.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		g.setComposite(AlphaComposite.SrcOver);
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.scale(scaleX, scaleY);
+		return g;
 	}
-}
\ No newline at end of file
+}
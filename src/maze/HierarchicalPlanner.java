@@ -0,0 +1,395 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical path planner (HPA*) for very large mazes.
+ *
+ * <p>
+ * The map is cut into square clusters. Wherever two neighbouring clusters share
+ * a run of open border tiles, one entrance pair is placed in the middle of the
+ * run; these entrance tiles are the nodes of an abstract graph. Within each
+ * cluster the walking distance between every pair of its entrances is computed
+ * once with a bounded BFS and cached as an edge.
+ *
+ * <p>
+ * A query runs A* over the abstract graph and then refines only the first leg
+ * (at most one cluster wide) into tiles, so the tile-level work per query is
+ * bounded by the cluster size no matter how big the map is. The caller asks
+ * again once the leg has been walked. Like the other planners the abstraction
+ * is rebuilt lazily after a tile's walkability changes; not thread-safe.
+ *
+ * @see MazeMap#getHierarchicalPlanner()
+ */
+public class HierarchicalPlanner implements TileChangeListener {
+
+	/** Default cluster edge length in tiles. */
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+	private final MazeMap map;
+	private final int rows, cols;
+	private final int clusterSize, clusterCols;
+
+	/** Bounded BFS used for cluster precomputation and leg refinement. */
+	private final PathFinder search;
+
+	private boolean dirty = true;
+
+	private int nodeCount;
+	private int[] nodeTile;
+
+	/** Entrances of cluster k are clusterNodes[clusterNodeStart[k]..clusterNodeStart[k+1]). */
+	private int[] clusterNodeStart, clusterNodes;
+
+	/** Abstract edges of node n are adjTarget/adjCost[adjStart[n]..adjStart[n+1]). */
+	private int[] adjStart, adjTarget, adjCost;
+
+	// Query scratch, sized on rebuild.
+	private int[] nodeG, nodeGen, parentNode, goalCost, goalGen;
+	private int generation;
+	private long[] heap;
+	private int heapSize;
+
+	/** Tiles of the refined first leg, excluding the start tile. */
+	private final int[] leg;
+	private int legLength;
+	private int plannedLength;
+
+	/**
+	 * @param map         the maze to plan over
+	 * @param clusterSize cluster edge length in tiles
+	 */
+	HierarchicalPlanner(MazeMap map, int clusterSize) {
+		this.map = map;
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		this.clusterSize = clusterSize;
+		this.clusterCols = (cols + clusterSize - 1) / clusterSize;
+		this.search = new PathFinder(map);
+		this.leg = new int[clusterSize * clusterSize];
+		map.addTileChangeListener(this);
+	}
+
+	/** Marks the abstraction stale when a tile's walkability flips. */
+	@Override
+	public void tileChanged(int row, int col, char oldTile, char newTile) {
+		if (MazeMap.isWalkable(oldTile) != MazeMap.isWalkable(newTile))
+			dirty = true;
+	}
+
+	/** Returns the number of entrance nodes in the abstract graph. */
+	public int getNodeCount() {
+		ensureBuilt();
+		return nodeCount;
+	}
+
+	private void ensureBuilt() {
+		if (dirty)
+			rebuild();
+	}
+
+	/** Places entrances on every cluster border and caches intra-cluster distances. */
+	private void rebuild() {
+		int clusterRows = (rows + clusterSize - 1) / clusterSize;
+		int clusterCount = clusterRows * clusterCols;
+		int[] nodeAt = new int[rows * cols];
+		Arrays.fill(nodeAt, -1);
+		nodeTile = new int[64];
+		nodeCount = 0;
+		EdgeList edges = new EdgeList();
+
+		// Horizontal borders: between tile rows r and r + 1.
+		for (int r = clusterSize - 1; r < rows - 1; r += clusterSize) {
+			int runStart = -1;
+			for (int c = 0; c <= cols; c++) {
+				boolean open = c < cols && map.isWalkable(r, c) && map.isWalkable(r + 1, c);
+				if (runStart >= 0 && (!open || c % clusterSize == 0)) {
+					int mid = (runStart + c - 1) / 2;
+					addEntrance(edges, nodeAt, r * cols + mid, (r + 1) * cols + mid);
+					runStart = -1;
+				}
+				if (open && runStart < 0)
+					runStart = c;
+			}
+		}
+		// Vertical borders: between tile columns c and c + 1.
+		for (int c = clusterSize - 1; c < cols - 1; c += clusterSize) {
+			int runStart = -1;
+			for (int r = 0; r <= rows; r++) {
+				boolean open = r < rows && map.isWalkable(r, c) && map.isWalkable(r, c + 1);
+				if (runStart >= 0 && (!open || r % clusterSize == 0)) {
+					int mid = (runStart + r - 1) / 2;
+					addEntrance(edges, nodeAt, mid * cols + c, mid * cols + c + 1);
+					runStart = -1;
+				}
+				if (open && runStart < 0)
+					runStart = r;
+			}
+		}
+
+		// Group entrances by cluster.
+		clusterNodeStart = new int[clusterCount + 1];
+		for (int n = 0; n < nodeCount; n++)
+			clusterNodeStart[clusterOf(nodeTile[n]) + 1]++;
+		for (int k = 0; k < clusterCount; k++)
+			clusterNodeStart[k + 1] += clusterNodeStart[k];
+		clusterNodes = new int[nodeCount];
+		int[] fill = Arrays.copyOf(clusterNodeStart, clusterCount);
+		for (int n = 0; n < nodeCount; n++)
+			clusterNodes[fill[clusterOf(nodeTile[n])]++] = n;
+
+		// Intra-cluster edges from one bounded flood per entrance.
+		for (int k = 0; k < clusterCount; k++) {
+			int top = (k / clusterCols) * clusterSize, left = (k % clusterCols) * clusterSize;
+			for (int i = clusterNodeStart[k]; i < clusterNodeStart[k + 1]; i++) {
+				int from = clusterNodes[i];
+				search.floodWithin(nodeTile[from] / cols, nodeTile[from] % cols, top, left, top + clusterSize - 1,
+						left + clusterSize - 1);
+				for (int j = clusterNodeStart[k]; j < clusterNodeStart[k + 1]; j++) {
+					int to = clusterNodes[j];
+					int d = search.getDistance(nodeTile[to] / cols, nodeTile[to] % cols);
+					if (to != from && d != PathFinder.UNREACHABLE)
+						edges.add(from, to, d);
+				}
+			}
+		}
+
+		adjStart = new int[nodeCount + 1];
+		for (int i = 0; i < edges.size; i++)
+			adjStart[edges.from[i] + 1]++;
+		for (int n = 0; n < nodeCount; n++)
+			adjStart[n + 1] += adjStart[n];
+		adjTarget = new int[edges.size];
+		adjCost = new int[edges.size];
+		fill = Arrays.copyOf(adjStart, nodeCount);
+		for (int i = 0; i < edges.size; i++) {
+			int slot = fill[edges.from[i]]++;
+			adjTarget[slot] = edges.to[i];
+			adjCost[slot] = edges.cost[i];
+		}
+
+		nodeG = new int[nodeCount];
+		nodeGen = new int[nodeCount];
+		parentNode = new int[nodeCount];
+		goalCost = new int[nodeCount];
+		goalGen = new int[nodeCount];
+		generation = 0;
+		heap = new long[Math.max(16, edges.size + 16)];
+		dirty = false;
+	}
+
+	/** Links the entrance tiles on either side of a border in both directions. */
+	private void addEntrance(EdgeList edges, int[] nodeAt, int tileA, int tileB) {
+		int a = nodeFor(nodeAt, tileA), b = nodeFor(nodeAt, tileB);
+		edges.add(a, b, 1);
+		edges.add(b, a, 1);
+	}
+
+	/** Returns the entrance node on a tile, creating it if needed. */
+	private int nodeFor(int[] nodeAt, int tile) {
+		if (nodeAt[tile] >= 0)
+			return nodeAt[tile];
+		if (nodeCount == nodeTile.length)
+			nodeTile = Arrays.copyOf(nodeTile, nodeCount * 2);
+		nodeTile[nodeCount] = tile;
+		nodeAt[tile] = nodeCount;
+		return nodeCount++;
+	}
+
+	private int clusterOf(int tile) {
+		int r = tile / cols, c = tile - r * cols;
+		return (r / clusterSize) * clusterCols + c / clusterSize;
+	}
+
+	/**
+	 * Plans a route between two tiles and refines its first leg into tiles. On
+	 * success the leg is available through {@link #getLegRow(int)} and
+	 * {@link #getLegCol(int)}, and {@link #getPlannedLength()} holds the length of
+	 * the whole route.
+	 *
+	 * @return number of steps in the first leg, or {@code -1} if the goal cannot
+	 *         be reached (or equals the start)
+	 */
+	public int planFirstLeg(int startRow, int startCol, int goalRow, int goalCol) {
+		ensureBuilt();
+		legLength = 0;
+		plannedLength = -1;
+		if (!map.isWalkable(startRow, startCol) || !map.isWalkable(goalRow, goalCol))
+			return -1;
+		int start = startRow * cols + startCol, goal = goalRow * cols + goalCol;
+		if (start == goal)
+			return -1;
+
+		if (++generation == 0) {
+			Arrays.fill(nodeGen, 0);
+			Arrays.fill(goalGen, 0);
+			generation = 1;
+		}
+		heapSize = 0;
+		int startCluster = clusterOf(start), goalCluster = clusterOf(goal);
+
+		// A path that never leaves the shared cluster is a valid upper bound.
+		int best = PathFinder.UNREACHABLE, bestNode = -1;
+		if (startCluster == goalCluster && refine(start, goal) > 0)
+			best = legLength;
+
+		// Exit costs: goal-cluster entrance to goal, then start to start-cluster entrance.
+		floodCluster(goal, goalCluster);
+		for (int i = clusterNodeStart[goalCluster]; i < clusterNodeStart[goalCluster + 1]; i++) {
+			int n = clusterNodes[i];
+			int d = search.getDistance(nodeTile[n] / cols, nodeTile[n] % cols);
+			if (d != PathFinder.UNREACHABLE) {
+				goalGen[n] = generation;
+				goalCost[n] = d;
+			}
+		}
+		floodCluster(start, startCluster);
+		for (int i = clusterNodeStart[startCluster]; i < clusterNodeStart[startCluster + 1]; i++) {
+			int n = clusterNodes[i];
+			int d = search.getDistance(nodeTile[n] / cols, nodeTile[n] % cols);
+			if (d != PathFinder.UNREACHABLE)
+				offer(n, d, -1, goalRow, goalCol);
+		}
+
+		while (heapSize > 0) {
+			long top = pollHeap();
+			int f = (int) (top >>> 32), u = (int) top;
+			if (f >= best)
+				break;
+			int g = nodeG[u];
+			if (g + heuristic(u, goalRow, goalCol) != f)
+				continue;
+			if (goalGen[u] == generation && g + goalCost[u] < best) {
+				best = g + goalCost[u];
+				bestNode = u;
+			}
+			for (int i = adjStart[u]; i < adjStart[u + 1]; i++)
+				offer(adjTarget[i], g + adjCost[i], u, goalRow, goalCol);
+		}
+
+		if (best == PathFinder.UNREACHABLE)
+			return -1;
+		plannedLength = best;
+		if (bestNode < 0)
+			return legLength;
+
+		// Walk back to the first entrance; the leg ends there, or at the entrance
+		// after it when the start tile is itself the first entrance.
+		int first = bestNode, second = -1;
+		while (parentNode[first] >= 0) {
+			second = first;
+			first = parentNode[first];
+		}
+		if (nodeTile[first] != start)
+			return refine(start, nodeTile[first]);
+		return refine(start, second >= 0 ? nodeTile[second] : goal);
+	}
+
+	/**
+	 * Fills the leg buffer with a path between two tiles that are either adjacent
+	 * or in the same cluster.
+	 */
+	private int refine(int from, int to) {
+		int fr = from / cols, fc = from % cols, tr = to / cols, tc = to % cols;
+		if (Math.abs(fr - tr) + Math.abs(fc - tc) == 1) {
+			leg[0] = to;
+			legLength = 1;
+			return 1;
+		}
+		int top = (fr / clusterSize) * clusterSize, left = (fc / clusterSize) * clusterSize;
+		int n = search.findPathWithin(fr, fc, tr, tc, top, left, top + clusterSize - 1, left + clusterSize - 1);
+		legLength = Math.max(0, n);
+		for (int i = 0; i < legLength; i++)
+			leg[i] = search.getPathRow(i) * cols + search.getPathCol(i);
+		return n;
+	}
+
+	private void floodCluster(int tile, int cluster) {
+		int top = (cluster / clusterCols) * clusterSize, left = (cluster % clusterCols) * clusterSize;
+		search.floodWithin(tile / cols, tile % cols, top, left, top + clusterSize - 1, left + clusterSize - 1);
+	}
+
+	private int heuristic(int node, int goalRow, int goalCol) {
+		int t = nodeTile[node], r = t / cols, c = t - r * cols;
+		return Math.abs(r - goalRow) + Math.abs(c - goalCol);
+	}
+
+	private void offer(int node, int g, int parent, int goalRow, int goalCol) {
+		if (nodeGen[node] == generation && nodeG[node] <= g)
+			return;
+		nodeGen[node] = generation;
+		nodeG[node] = g;
+		parentNode[node] = parent;
+		pushHeap(((long) (g + heuristic(node, goalRow, goalCol)) << 32) | node);
+	}
+
+	private void pushHeap(long key) {
+		if (heapSize == heap.length)
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		int i = heapSize++;
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (heap[p] <= key)
+				break;
+			heap[i] = heap[p];
+			i = p;
+		}
+		heap[i] = key;
+	}
+
+	private long pollHeap() {
+		long top = heap[0], last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return top;
+	}
+
+	/** Returns the total length of the last planned route, or -1. */
+	public int getPlannedLength() {
+		return plannedLength;
+	}
+
+	/** Returns the number of steps in the last refined leg. */
+	public int getLegLength() {
+		return legLength;
+	}
+
+	/** Returns the row of step {@code i} of the last refined leg. */
+	public int getLegRow(int i) {
+		return leg[i] / cols;
+	}
+
+	/** Returns the column of step {@code i} of the last refined leg. */
+	public int getLegCol(int i) {
+		return leg[i] % cols;
+	}
+
+	/** Growable list of directed, weighted edges used while building the abstraction. */
+	private static final class EdgeList {
+		private int[] from = new int[64], to = new int[64], cost = new int[64];
+		private int size;
+
+		void add(int a, int b, int c) {
+			if (size == from.length) {
+				from = Arrays.copyOf(from, size * 2);
+				to = Arrays.copyOf(to, size * 2);
+				cost = Arrays.copyOf(cost, size * 2);
+			}
+			from[size] = a;
+			to[size] = b;
+			cost[size] = c;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package maze;
+
+/**
+ * Fixed-capacity FIFO queue of primitive ints backed by a power-of-two ring
+ * buffer. Used by the pathfinding code so searches never box or allocate.
+ */
+final class IntRingQueue {
+
+	private final int[] items;
+	private final int mask;
+	private int head, tail;
+
+	/**
+	 * @param minCapacity the most items that will ever be queued at once; rounded
+	 *                    up to the next power of two
+	 */
+	IntRingQueue(int minCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1;
+		items = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	/** Removes every item without touching the backing array. */
+	void clear() {
+		head = tail = 0;
+	}
+
+	/** Returns {@code true} if no items are queued. */
+	boolean isEmpty() {
+		return head == tail;
+	}
+
+	/** Appends an item to the back of the queue. */
+	void add(int value) {
+		items[tail++ & mask] = value;
+	}
+
+	/** Returns the item at the front of the queue without removing it. */
+	int peek() {
+		return items[head & mask];
+	}
+
+	/** Removes and returns the item at the front of the queue. */
+	int poll() {
+		return items[head++ & mask];
+	}
+}
@@ -0,0 +1,112 @@
+package maze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for level files.
+ *
+ * <p>
+ * A level file is plain ASCII, one map row per line, using the tile characters
+ * listed on {@link MazeMap}. Lines may end in {@code \n} or {@code \r\n}; blank
+ * lines at the end are ignored. Rows shorter than the widest one are padded
+ * with walls. A level must hold exactly one player start, {@code P}.
+ *
+ * <p>
+ * The file is read through a channel into a fixed buffer and each line's bytes
+ * go straight into a reusable char row, so memory use is the finished grid plus
+ * one line, whatever the file size.
+ */
+public class LevelReader {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Reads a level file.
+	 *
+	 * @param file the level file
+	 * @return tile characters indexed {@code [row][col]}, every row the same length
+	 * @throws IOException if the file cannot be read, is empty, holds an unknown
+	 *                     tile character or does not have exactly one player start
+	 */
+	public static char[][] read(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(ch, file.toString());
+		}
+	}
+
+	/**
+	 * Reads a level from a channel, up to its end. The channel is not closed.
+	 *
+	 * @param in     the channel to read
+	 * @param source name of the level for error messages
+	 * @return tile characters indexed {@code [row][col]}, every row the same length
+	 * @throws IOException if the channel fails, the level is empty, holds an
+	 *                     unknown tile character or does not have exactly one
+	 *                     player start
+	 */
+	public static char[][] read(ReadableByteChannel in, String source) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		ArrayList<char[]> rows = new ArrayList<>();
+		char[] line = new char[256];
+		int length = 0, width = 0, blankRun = 0, players = 0;
+
+		while (true) {
+			buf.clear();
+			boolean end = in.read(buf) < 0;
+			buf.flip();
+			while (buf.hasRemaining()) {
+				char c = (char) (buf.get() & 0xFF);
+				if (c == '\n') {
+					// Blank lines only count once a later row shows they are not trailing.
+					if (length == 0) {
+						blankRun++;
+						continue;
+					}
+					for (; blankRun > 0; blankRun--)
+						rows.add(new char[0]);
+					rows.add(Arrays.copyOf(line, length));
+					width = Math.max(width, length);
+					length = 0;
+				} else if (c != '\r') {
+					if (!MazeMap.isTile(c))
+						throw new IOException(source + ":" + (rows.size() + blankRun + 1) + ":" + (length + 1)
+								+ ": unknown tile '" + c + "'");
+					if (c == 'P')
+						players++;
+					if (length == line.length)
+						line = Arrays.copyOf(line, length * 2);
+					line[length++] = c;
+				}
+			}
+			if (end)
+				break;
+		}
+		if (length > 0) {
+			for (; blankRun > 0; blankRun--)
+				rows.add(new char[0]);
+			rows.add(Arrays.copyOf(line, length));
+			width = Math.max(width, length);
+		}
+		if (width == 0)
+			throw new IOException(source + ": empty level");
+		if (players != 1)
+			throw new IOException(source + ": expected one player start 'P', found " + players);
+
+		char[][] map = rows.toArray(new char[0][]);
+		for (int r = 0; r < map.length; r++) {
+			if (map[r].length < width) {
+				int old = map[r].length;
+				map[r] = Arrays.copyOf(map[r], width);
+				Arrays.fill(map[r], old, width, '#');
+			}
+		}
+		return map;
+	}
+}
@@ -7,26 +7,51 @@ import javax.swing.SwingUtilities;
  * Application entry point.
  *
  * <p>
- * Creates the game window, attaches a GamePanel, and starts the game loop on
- * the Swing Event Dispatch Thread.
+ * Creates the game window, attaches the game view, and starts the game loop.
+ * By default the game is a Swing {@link GamePanel}; pass {@code --active} for
+ * the actively rendered {@link GameCanvas}, and {@code --vsync} with it to
+ * request retrace-synchronised page flipping.
  */
 public class Main {
 
 	/** Launches the game. */
 	public static void main(String[] args) {
+		boolean active = false, vsync = false;
+		for (String arg : args) {
+			if (arg.equals("--active"))
+				active = true;
+			else if (arg.equals("--vsync"))
+				vsync = true;
+		}
+		boolean useCanvas = active, useVsync = vsync;
+
+		// Decode the sprites while Swing starts up; the window shows stand-ins until they are ready.
+		SpriteLoader.startLoading();
+
 		SwingUtilities.invokeLater(() -> {
 			JFrame window = new JFrame("Maze: Zombies and Gems");
 			window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 			window.setResizable(false);
 
-			GamePanel panel = new GamePanel();
-			window.add(panel);
-			window.pack();
-			window.setLocationRelativeTo(null);
-			window.setVisible(true);
+			if (useCanvas) {
+				GameCanvas canvas = new GameCanvas(useVsync);
+				window.add(canvas);
+				window.pack();
+				window.setLocationRelativeTo(null);
+				window.setVisible(true);
+
+				canvas.requestFocusInWindow();
+				canvas.startGameThread();
+			} else {
+				GamePanel panel = new GamePanel();
+				window.add(panel);
+				window.pack();
+				window.setLocationRelativeTo(null);
+				window.setVisible(true);
 
-			panel.requestFocusInWindow();
-			panel.startGameThread();
+				panel.requestFocusInWindow();
+				panel.startGameThread();
+			}
 		});
 	}
-}
\ No newline at end of file
+}
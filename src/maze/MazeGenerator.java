@@ -0,0 +1,105 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates random maze layouts of any size in the same tile alphabet as the
+ * built-in levels.
+ *
+ * <p>
+ * Corridors are carved with an iterative depth-first backtracker on the odd
+ * rows and columns, then a small fraction of the remaining inner walls is
+ * knocked out so the maze has loops. The player spawns in the top-left cell and
+ * the exit is placed in the bottom-right cell.
+ */
+public class MazeGenerator {
+
+	/** Fraction of inner walls removed after carving to create loops. */
+	private static final double LOOP_FRACTION = 0.05;
+
+	private MazeGenerator() {
+	}
+
+	/**
+	 * Generates a maze layout.
+	 *
+	 * @param rows    number of tile rows (at least 5)
+	 * @param cols    number of tile columns (at least 5)
+	 * @param zombies number of zombie spawns to place on free floor tiles
+	 * @param gems    number of gem spawns to place on free floor tiles
+	 * @param seed    random seed; the same arguments always give the same maze
+	 * @return tile characters indexed {@code [row][col]}
+	 */
+	public static char[][] generate(int rows, int cols, int zombies, int gems, long seed) {
+		Random rand = new Random(seed);
+		char[][] tiles = new char[rows][cols];
+		for (char[] row : tiles)
+			Arrays.fill(row, '#');
+
+		// Cells live on odd coordinates; the tile between two cells is their wall.
+		int cellRows = (rows - 1) / 2, cellCols = (cols - 1) / 2;
+		int[] stack = new int[cellRows * cellCols];
+		boolean[] visited = new boolean[cellRows * cellCols];
+		int[] order = { 0, 1, 2, 3 };
+		int top = 0;
+		stack[top++] = 0;
+		visited[0] = true;
+		tiles[1][1] = '.';
+
+		while (top > 0) {
+			int cell = stack[top - 1];
+			int cr = cell / cellCols, cc = cell % cellCols;
+			shuffle(order, rand);
+			boolean moved = false;
+			for (int d : order) {
+				int nr = cr + FlowField.rowOffset(d), nc = cc + FlowField.colOffset(d);
+				if (nr < 0 || nr >= cellRows || nc < 0 || nc >= cellCols || visited[nr * cellCols + nc])
+					continue;
+				visited[nr * cellCols + nc] = true;
+				tiles[cr + nr + 1][cc + nc + 1] = '.';
+				tiles[2 * nr + 1][2 * nc + 1] = '.';
+				stack[top++] = nr * cellCols + nc;
+				moved = true;
+				break;
+			}
+			if (!moved)
+				top--;
+		}
+
+		int loops = (int) (cellRows * cellCols * LOOP_FRACTION);
+		for (int i = 0; i < loops; i++) {
+			int r = 1 + rand.nextInt(rows - 2), c = 1 + rand.nextInt(cols - 2);
+			boolean between = (r % 2 == 1) != (c % 2 == 1);
+			if (between && tiles[r][c] == '#')
+				tiles[r][c] = '.';
+		}
+
+		tiles[1][1] = 'P';
+		tiles[2 * cellRows - 1][2 * cellCols - 1] = 'E';
+		place(tiles, 'Z', zombies, rand);
+		place(tiles, 'G', gems, rand);
+		return tiles;
+	}
+
+	/** Puts {@code count} copies of a spawn tile on random plain floor tiles. */
+	private static void place(char[][] tiles, char tile, int count, Random rand) {
+		int rows = tiles.length, cols = tiles[0].length;
+		for (int placed = 0, attempts = 0; placed < count && attempts < count * 20; attempts++) {
+			int r = rand.nextInt(rows), c = rand.nextInt(cols);
+			if (tiles[r][c] == '.') {
+				tiles[r][c] = tile;
+				placed++;
+			}
+		}
+	}
+
+	private static void shuffle(int[] a, Random rand) {
+		for (int i = a.length - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int t = a[i];
+			a[i] = a[j];
+			a[j] = t;
+		}
+	}
+}
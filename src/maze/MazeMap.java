@@ -4,155 +4,317 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
- * Loads, stores, and renders a tile-based maze level.
+ * Loads, stores, and renders a tile-based maze level. Levels are read by
+ * {@link LevelReader}, from a file under {@code levels/} in the working
+ * directory if there is one, otherwise from the built-in levels shipped on the
+ * classpath next to this class.
  *
  * <p>
  * Tile characters: {@code #} wall, {@code .} floor, {@code P} player spawn,
  * {@code Z} zombie spawn, {@code G} gem spawn, {@code E} exit, {@code T} trap,
- * {@code D} door (blocks movement). Spawn tiles are replaced with {@code '.'}
+ * {@code D} door (blocks movement and pathfinding). Spawn tiles are replaced with {@code '.'}
  * by gamepanel after entity creation.
  *
  * <p>
- * Wall and floor tiles are loaded from image files; if any are missing,
- * procedural tiles are generated instead.
+ * Wall and floor tiles are drawn from the shared {@link SpriteLoader#getAtlas()
+ * atlas}, which starts loading the first time anything is drawn and replaces
+ * its procedural stand-ins when the files are ready. The map is cached
+ * as square chunk images rendered the first time they come into view; later
+ * frames blit only the visible chunks, re-rendering just the tiles changed
+ * through {@link #setTile}. Chunks are rendered at the graphics context's
+ * scale, so zoomed and HiDPI frames blit them without resampling.
+ *
+ * <p>
+ * Tiles are stored one byte each in a flat row-major array: the low bits hold
+ * the tile character's code, the bits above its image variant.
+ * Whether each tile blocks movement is kept again in a bitset, so collision and
+ * pathfinding read one bit per tile. Both are surrounded by a one-tile wall
+ * border, so neighbours of any map tile can be read without bounds checks.
  */
 public class MazeMap {
 
 	/** Width and height of a single tile in pixels. */
 	public static final int TILE_SIZE = 32;
 
-	private static final String[] LEVEL_1 = { "#####################", "#P..#.....#.....#..E#", "#.#.#.###.#.###.#.###",
-			"#.#...#.G.....#.....#", "#.#####.#####.#####.#", "#.......#Z....#.....#", "#.#####.#.###.#.###.#",
-			"#.#.G.#.#.#.#.....#.#", "#.#.#.#.#.#.#.#####.#", "#...#.....#.#.......#", "###.#.#####.#######.#",
-			"#.G.#.#...#.......#.#", "#.###.#.#.#######.#.#", "#.....#Z#.........#.#", "#.#####.#########.#.#",
-			"#.G.......Z...G.....#", "#####################" };
+	/**
+	 * Directory holding the level files, relative to the working directory for
+	 * added levels and to this class's package for the built-in ones.
+	 */
+	private static final String LEVEL_DIR = "levels";
+
+	/** Width and height of a cached map chunk, in tiles. */
+	private static final int CHUNK_TILES = 16;
+
+	/**
+	 * Device pixels of chunk images kept at once: 64 chunks at 1:1 scale, about
+	 * 64 MB. Chunks are rendered at the context's scale, so fewer fit when zoomed
+	 * in or on a HiDPI screen; the least recently drawn are dropped first.
+	 */
+	private static final long MAX_CHUNK_PIXELS = 64L * (CHUNK_TILES * TILE_SIZE) * (CHUNK_TILES * TILE_SIZE);
+
+	private static final Color EXIT_COLOR = new Color(0, 200, 100, 180);
+	private static final Font EXIT_FONT = new Font("SansSerif", Font.BOLD, 10);
+	private static final Color TRAP_COLOR = new Color(200, 50, 50, 200);
+	private static final Color DOOR_COLOR = new Color(120, 80, 40);
+	private static final Color DOOR_HANDLE_COLOR = new Color(200, 160, 60);
 
-	private static final String[] LEVEL_2 = { "#####################", "#P....#.......#....E#", "#.##.##.#####.##.##.#",
-			"#.#..#....G......#..#", "#.#.##.#######.###..#", "#.#..#.#.....#...Z..#", "#.##.#.#.###.#.#####.",
-			"#....#.#.#.G.#.#.G..#", "#.####.#.#...#.##.###", "#.#....#.#.###.#....#", "#.#.##.#.#.#Z..#.##.#",
-			"#...#..#...#...#.#..#", "###.#.##.###.###.#.##", "#...#..#.....#...#..#", "#.###.##.###.#.###..#",
-			"#G.........Z.....G..#", "#####################" };
+	/** Tile characters by tile code; code 0 is the wall the border is made of. */
+	private static final String TILE_CHARS = "#.PZGETD";
 
-	private char[][] map;
+	/** Bits of a stored tile holding its code; the bits above hold the variant. */
+	private static final int CODE_BITS = 3, CODE_MASK = (1 << CODE_BITS) - 1;
 
-	/** Per-tile variant index (0–3) used to pick one of four tile images. */
-	private int[][] tileVariant;
+	private final int rows, cols;
 
-	private final BufferedImage[] wallTiles = new BufferedImage[4];
-	private final BufferedImage[] pathTiles = new BufferedImage[4];
-	private int levelNumber;
+	/** Row length of the padded arrays: the map width plus the border on each side. */
+	private final int stride;
+
+	/**
+	 * Tile code and variant of every tile, indexed {@code (row + 1) * stride + col + 1}
+	 * so the border occupies the first and last row and column.
+	 */
+	private final byte[] tiles;
+
+	/** Bitset of the tiles that block movement, indexed like {@link #tiles}. */
+	private final long[] blocked;
+
+	/**
+	 * Sight spans, indexed {@code row * cols + col}: the column (or row) of the
+	 * first wall strictly to the right of (or below) each tile, or the map width
+	 * (or height) if there is none. Two tiles in a row see each other exactly when
+	 * the left one's next wall is not before the right one.
+	 */
+	private int[] nextWallRight, nextWallDown;
+
+	private final int levelNumber;
 	private final Random rand = new Random();
 
+	/** Shared hunt-mode distance field; created on first use. */
+	private FlowField flowField;
+
+	/** Reusable search engine for point-to-point queries; created on first use. */
+	private PathFinder pathFinder;
+
+	/** Junction graph for long-range path queries; created on first use. */
+	private CorridorGraph corridorGraph;
+
+	/** Cluster-level planner for very large maps; created on first use. */
+	private HierarchicalPlanner hierarchicalPlanner;
+
+	/** Notified after every effective {@link #setTile} change. */
+	private final List<TileChangeListener> tileListeners = new ArrayList<>();
+
+	/** Sprite and tile sheet the cached chunks were rendered from. */
+	private TextureAtlas atlas;
+
 	/**
-	 * Loads the given level, randomises tile variants, and initialises tile images.
+	 * Pre-rendered chunks compatible with the screen they are drawn to, keyed by
+	 * {@code chunkRow * chunkCols + chunkCol}, in least-recently-drawn order. Only
+	 * touched by the drawing thread.
+	 */
+	private final LinkedHashMap<Integer, BufferedImage> chunks = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+			return size() > maxChunks;
+		}
+	};
+
+	/** Device pixels per map pixel the cached chunks were rendered at. */
+	private double chunkScaleX = 1, chunkScaleY = 1;
+
+	/** Most chunks that fit in {@link #MAX_CHUNK_PIXELS} at the chunk scale. */
+	private int maxChunks = chunkLimit(1, 1);
+
+	/** True once any chunk has been rendered, so tile changes must be tracked. */
+	private boolean drawn = false;
+
+	/** Tiles whose cached chunk pixels are stale, indexed {@code row * cols + col}. */
+	private boolean[] dirty;
+	private int[] dirtyList = new int[16];
+	private int dirtyCount = 0;
+
+	/**
+	 * Loads the given level from its {@link #levelFile(int) level file}, or the
+	 * built-in level if there is no file, and randomises tile variants. Tile
+	 * images are loaded on first draw so headless simulations never touch them.
 	 *
 	 * @param level 1-based level number
+	 * @throws UncheckedIOException if the level does not exist or is malformed
 	 */
 	public MazeMap(int level) {
-		this.levelNumber = level;
-		loadLevel(level);
-		generateTileVariants();
-		loadOrGenerateTiles();
+		this(readLevel(level), level);
 	}
 
-	/** Parses the string-array layout into the {@code map} char array. */
-	private void loadLevel(int level) {
-		String[] src = (level == 2) ? LEVEL_2 : LEVEL_1;
-		int rows = src.length, cols = src[0].length();
-		map = new char[rows][cols];
+	/**
+	 * Creates a map from an existing tile grid, such as one produced by
+	 * {@link MazeGenerator}. The grid is copied into the map's own storage, so the
+	 * caller may reuse it; every row must have the same length.
+	 *
+	 * @param grid        tile characters indexed {@code [row][col]}
+	 * @param levelNumber level number reported by {@link #getLevelNumber()}
+	 * @throws IllegalArgumentException if the grid holds an unknown tile character
+	 */
+	public MazeMap(char[][] grid, int levelNumber) {
+		this.levelNumber = levelNumber;
+		rows = grid.length;
+		cols = grid[0].length;
+		stride = cols + 2;
+		tiles = new byte[(rows + 2) * stride];
+		blocked = new long[(tiles.length + 63) >>> 6];
+		Arrays.fill(blocked, -1L);
 		for (int r = 0; r < rows; r++) {
-			String row = src[r];
-			while (row.length() < cols)
-				row += "#";
-			if (row.length() > cols)
-				row = row.substring(0, cols);
-			map[r] = row.toCharArray();
+			char[] line = grid[r];
+			for (int c = 0, i = (r + 1) * stride + 1; c < cols; c++, i++)
+				store(i, code(line[c]), rand.nextInt(4));
 		}
+		buildSightSpans();
 	}
 
-	/** Assigns a random 0–3 variant to every tile for visual variety. */
-	private void generateTileVariants() {
-		tileVariant = new int[getRows()][getCols()];
-		for (int r = 0; r < getRows(); r++)
-			for (int c = 0; c < getCols(); c++)
-				tileVariant[r][c] = rand.nextInt(4);
+	/**
+	 * Returns the file that adds or replaces a level: {@code levels/level<n>.txt}
+	 * under the working directory, in the format read by {@link LevelReader}.
+	 *
+	 * @param level 1-based level number
+	 */
+	public static Path levelFile(int level) {
+		return Path.of(LEVEL_DIR, levelName(level));
 	}
 
 	/**
-	 * Loads tile images from disk. Falls back to procedural generation if any file
-	 * is missing.
+	 * Returns {@code true} if there is a file or a built-in level for the given
+	 * level number. The level may still fail to load if its file is malformed.
+	 *
+	 * @param level 1-based level number
 	 */
-	private void loadOrGenerateTiles() {
-		String[] wallPaths = { "tile.png", "tile1.png", "tile2.png", "tile3.png" };
-		String[] pathPaths = { "path.png", "path2.png", "path3.png", "path4.png" };
-
-		boolean anyMissing = false;
-		for (int i = 0; i < 4; i++) {
-			wallTiles[i] = SpriteLoader.load(wallPaths[i], TILE_SIZE, TILE_SIZE);
-			pathTiles[i] = SpriteLoader.load(pathPaths[i], TILE_SIZE, TILE_SIZE);
-			if (SpriteLoader.missingSprites)
-				anyMissing = true;
+	public static boolean hasLevel(int level) {
+		return Files.isRegularFile(levelFile(level))
+				|| MazeMap.class.getResource(LEVEL_DIR + "/" + levelName(level)) != null;
+	}
+
+	private static String levelName(int level) {
+		return "level" + level + ".txt";
+	}
+
+	private static char[][] readLevel(int level) {
+		try {
+			Path file = levelFile(level);
+			if (Files.isRegularFile(file))
+				return LevelReader.read(file);
+			String resource = LEVEL_DIR + "/" + levelName(level);
+			try (InputStream in = MazeMap.class.getResourceAsStream(resource)) {
+				if (in == null)
+					throw new IOException("No level " + level);
+				return LevelReader.read(Channels.newChannel(in), resource);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot load level " + level, e);
 		}
+	}
 
-		if (anyMissing)
-			generateProceduralTiles();
+	/** Returns {@code true} if the character is one of the tile characters. */
+	static boolean isTile(char c) {
+		return TILE_CHARS.indexOf(c) >= 0;
 	}
 
-	/** Procedurally generates grey wall tiles and brown floor tiles. */
-	private void generateProceduralTiles() {
-		Color[] wallColors = { new Color(90, 90, 100), new Color(85, 88, 98), new Color(95, 93, 105),
-				new Color(88, 86, 95) };
-		Color[] floorColors = { new Color(60, 45, 30), new Color(55, 42, 28), new Color(65, 48, 32),
-				new Color(58, 44, 29) };
+	/**
+	 * Returns the code of a tile character.
+	 *
+	 * @throws IllegalArgumentException if the character is not a tile
+	 */
+	private static int code(char tile) {
+		int code = TILE_CHARS.indexOf(tile);
+		if (code < 0)
+			throw new IllegalArgumentException("Unknown tile '" + tile + "'");
+		return code;
+	}
 
-		for (int i = 0; i < 4; i++) {
-			wallTiles[i] = buildTile(wallColors[i], true, i);
-			pathTiles[i] = buildTile(floorColors[i], false, i);
-		}
+	/** Writes a tile's code and variant at a padded index and updates its blocked bit. */
+	private void store(int i, int code, int variant) {
+		tiles[i] = (byte) (variant << CODE_BITS | code);
+		if (isWalkable(TILE_CHARS.charAt(code)))
+			blocked[i >>> 6] &= ~(1L << i);
+		else
+			blocked[i >>> 6] |= 1L << i;
 	}
 
 	/**
-	 * Builds one procedural tile image with noise pixels and a bevel (walls) or a
-	 * simple border (floors).
+	 * Returns the padded index of a tile, or 0, a border corner, for positions
+	 * outside the map.
 	 */
-	private BufferedImage buildTile(Color base, boolean isWall, int variant) {
-		int s = TILE_SIZE;
-		BufferedImage img = new BufferedImage(s, s, BufferedImage.TYPE_INT_RGB);
-		Graphics2D g = img.createGraphics();
+	private int index(int row, int col) {
+		if (row >= rows || col >= cols || (row | col) < 0)
+			return 0;
+		return (row + 1) * stride + col + 1;
+	}
 
-		g.setColor(base);
-		g.fillRect(0, 0, s, s);
+	/** Returns {@code true} if the tile at a padded index is a wall. */
+	private boolean isWall(int i) {
+		return (tiles[i] & CODE_MASK) == 0;
+	}
 
-		Random r = new Random(variant * 31L);
-		for (int i = 0; i < 40; i++) {
-			int nx = r.nextInt(s), ny = r.nextInt(s), delta = r.nextInt(20) - 10;
-			g.setColor(clampColor(base.getRed() + delta, base.getGreen() + delta, base.getBlue() + delta));
-			g.fillRect(nx, ny, 2, 2);
+	/** Precomputes the wall-free row and column span of every tile. */
+	private void buildSightSpans() {
+		nextWallRight = new int[rows * cols];
+		nextWallDown = new int[rows * cols];
+		for (int r = 0; r < rows; r++) {
+			int next = cols;
+			for (int c = cols - 1; c >= 0; c--) {
+				nextWallRight[r * cols + c] = next;
+				if (isWall((r + 1) * stride + c + 1))
+					next = c;
+			}
 		}
-
-		if (isWall) {
-			g.setColor(base.brighter().brighter());
-			g.drawLine(0, 0, s - 1, 0);
-			g.drawLine(0, 0, 0, s - 1);
-			g.setColor(base.darker().darker());
-			g.drawLine(s - 1, 0, s - 1, s - 1);
-			g.drawLine(0, s - 1, s - 1, s - 1);
-		} else {
-			g.setColor(base.darker());
-			g.drawRect(0, 0, s - 1, s - 1);
+		for (int c = 0; c < cols; c++) {
+			int next = rows;
+			for (int r = rows - 1; r >= 0; r--) {
+				nextWallDown[r * cols + c] = next;
+				if (isWall((r + 1) * stride + c + 1))
+					next = r;
+			}
 		}
-
-		g.dispose();
-		return img;
 	}
 
-	/** Returns a {@link Color} with each channel clamped to [0, 255]. */
-	private static Color clampColor(int r, int g, int b) {
-		return new Color(Math.max(0, Math.min(255, r)), Math.max(0, Math.min(255, g)), Math.max(0, Math.min(255, b)));
+	/**
+	 * Repairs the sight spans after the tile at (row, col) became or stopped being
+	 * a wall. Only the tiles to its left back to the previous wall, and above it
+	 * back to the previous wall, can see a different next wall.
+	 */
+	private void updateSightSpans(int row, int col) {
+		int idx = row * cols + col, i = index(row, col);
+		boolean wall = isWall(i);
+
+		int next = wall ? col : nextWallRight[idx];
+		for (int c = col - 1; c >= 0; c--) {
+			nextWallRight[row * cols + c] = next;
+			if (isWall(i - (col - c)))
+				break;
+		}
+		next = wall ? row : nextWallDown[idx];
+		for (int r = row - 1; r >= 0; r--) {
+			nextWallDown[r * cols + col] = next;
+			if (isWall(i - (row - r) * stride))
+				break;
+		}
 	}
 
 	/**
@@ -163,11 +325,52 @@ public class MazeMap {
 	 * @param col column index (0-based, left to right)
 	 */
 	public char getTile(int row, int col) {
-		if (row < 0 || row >= map.length)
-			return '#';
-		if (col < 0 || col >= map[row].length)
-			return '#';
-		return map[row][col];
+		return TILE_CHARS.charAt(tiles[index(row, col)] & CODE_MASK);
+	}
+
+	/**
+	 * Returns {@code true} if zombies and the pathfinding code may enter the given
+	 * tile. Out-of-bounds positions are treated as walls.
+	 */
+	public boolean isWalkable(int row, int col) {
+		int i = index(row, col);
+		return (blocked[i >>> 6] & 1L << i) == 0;
+	}
+
+	/**
+	 * Like {@link #isWalkable(int, int)} but without the bounds check, for search
+	 * loops stepping from a tile known to be on the map. The row and column may be
+	 * at most one tile outside it, where the border reads as blocked.
+	 */
+	boolean isOpen(int row, int col) {
+		int i = (row + 1) * stride + col + 1;
+		return (blocked[i >>> 6] & 1L << i) == 0;
+	}
+
+	/**
+	 * Returns {@code true} if no wall lies strictly between two columns of the
+	 * given row. Runs in constant time using the precomputed sight spans.
+	 */
+	public boolean isRowClear(int row, int col1, int col2) {
+		int lo = Math.min(col1, col2), hi = Math.max(col1, col2);
+		if (hi - lo <= 1)
+			return true;
+		if (row < 0 || row >= rows || lo < 0 || lo >= cols)
+			return false;
+		return nextWallRight[row * cols + lo] >= hi;
+	}
+
+	/**
+	 * Returns {@code true} if no wall lies strictly between two rows of the given
+	 * column. Runs in constant time using the precomputed sight spans.
+	 */
+	public boolean isColumnClear(int col, int row1, int row2) {
+		int lo = Math.min(row1, row2), hi = Math.max(row1, row2);
+		if (hi - lo <= 1)
+			return true;
+		if (col < 0 || col >= cols || lo < 0 || lo >= rows)
+			return false;
+		return nextWallDown[lo * cols + col] >= hi;
 	}
 
 	/**
@@ -181,25 +384,94 @@ public class MazeMap {
 	}
 
 	/**
-	 * Overwrites the tile at the given grid coordinates.
+	 * Overwrites the tile at the given grid coordinates and notifies every
+	 * registered {@link TileChangeListener} if the character actually changed.
 	 *
 	 * @param row  row index
 	 * @param col  column index
 	 * @param tile new tile character
+	 * @throws IllegalArgumentException if the character is not a tile
 	 */
 	public void setTile(int row, int col, char tile) {
-		if (row >= 0 && row < map.length && col >= 0 && col < map[row].length)
-			map[row][col] = tile;
+		int code = code(tile);
+		if (row < 0 || row >= rows || col < 0 || col >= cols)
+			return;
+		int i = index(row, col);
+		char old = TILE_CHARS.charAt(tiles[i] & CODE_MASK);
+		if (old == tile)
+			return;
+		store(i, code, (tiles[i] & 0xFF) >>> CODE_BITS);
+		if ((old == '#') != (tile == '#'))
+			updateSightSpans(row, col);
+		markDirty(row * cols + col);
+		for (TileChangeListener l : tileListeners)
+			l.tileChanged(row, col, old, tile);
+	}
+
+	/**
+	 * Registers a listener to be told about runtime tile changes.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addTileChangeListener(TileChangeListener listener) {
+		tileListeners.add(listener);
+	}
+
+	/**
+	 * Returns {@code true} if the given tile character can be entered by zombies
+	 * and the pathfinding code.
+	 */
+	public static boolean isWalkable(char tile) {
+		return tile != '#' && tile != 'D';
 	}
 
 	/** Returns the number of tile rows. */
 	public int getRows() {
-		return map.length;
+		return rows;
 	}
 
 	/** Returns the number of tile columns. */
 	public int getCols() {
-		return map[0].length;
+		return cols;
+	}
+
+	/**
+	 * Returns the shared flow field used by hunting zombies, creating it on first
+	 * use.
+	 */
+	public FlowField getFlowField() {
+		if (flowField == null)
+			flowField = new FlowField(this);
+		return flowField;
+	}
+
+	/**
+	 * Returns this map's reusable pathfinding engine, creating it on first use.
+	 */
+	public PathFinder getPathFinder() {
+		if (pathFinder == null)
+			pathFinder = new PathFinder(this);
+		return pathFinder;
+	}
+
+	/**
+	 * Returns the compressed junction graph of this map, creating it on first use.
+	 * For path queries that should only visit intersections and dead ends.
+	 */
+	public CorridorGraph getCorridorGraph() {
+		if (corridorGraph == null)
+			corridorGraph = new CorridorGraph(this);
+		return corridorGraph;
+	}
+
+	/**
+	 * Returns the hierarchical planner for this map, creating it on first use.
+	 * Intended for generated maps far larger than the built-in levels.
+	 */
+	public HierarchicalPlanner getHierarchicalPlanner() {
+		if (hierarchicalPlanner == null)
+			hierarchicalPlanner = new HierarchicalPlanner(this, HierarchicalPlanner.DEFAULT_CLUSTER_SIZE);
+		return hierarchicalPlanner;
 	}
 
 	/** Returns the 1-based level number this map was loaded for. */
@@ -208,47 +480,211 @@ public class MazeMap {
 	}
 
 	/**
-	 * Renders the entire map. Special overlays are painted on exit, trap, and door
-	 * tiles.
+	 * Renders the part of the map inside the graphics clip, or the entire map if
+	 * there is no clip. Special overlays are painted on exit, trap, and door tiles.
+	 *
+	 * <p>
+	 * Each visible chunk is rendered once into an image compatible with the
+	 * target's device, which Java2D can keep in video memory; after that each call
+	 * re-renders only the dirty tiles and blits the visible chunks, so the cost
+	 * depends on the clip size rather than the map size. A clip spanning more
+	 * chunks than the cache holds is drawn tile by tile. A change of scale discards
+	 * the cache; rotated contexts are always drawn tile by tile.
 	 *
 	 * @param g graphics context
 	 */
 	public void draw(Graphics g) {
-		for (int row = 0; row < map.length; row++) {
-			for (int col = 0; col < map[row].length; col++) {
-				int x = col * TILE_SIZE, y = row * TILE_SIZE;
-				char tile = map[row][col];
-				int v = tileVariant[row][col];
-
-				if (tile == '#') {
-					g.drawImage(wallTiles[v], x, y, null);
-				} else {
-					g.drawImage(pathTiles[v], x, y, null);
-					if (tile == 'E')
-						drawExitOverlay(g, x, y);
-					if (tile == 'T')
-						drawTrapOverlay(g, x, y);
-					if (tile == 'D')
-						drawDoorOverlay(g, x, y);
+		TextureAtlas current = SpriteLoader.getAtlas();
+		if (current != atlas) {
+			// The loaded tiles replaced the stand-ins.
+			atlas = current;
+			chunks.clear();
+		}
+		Graphics2D g2 = (Graphics2D) g;
+		GraphicsConfiguration gc = g2.getDeviceConfiguration();
+		AffineTransform t = g2.getTransform();
+		boolean rotated = (t.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0;
+		if (!rotated && (t.getScaleX() != chunkScaleX || t.getScaleY() != chunkScaleY)) {
+			chunks.clear();
+			chunkScaleX = t.getScaleX();
+			chunkScaleY = t.getScaleY();
+			maxChunks = chunkLimit(chunkScaleX, chunkScaleY);
+		}
+		synchronized (this) {
+			drawn = true;
+		}
+		redrawDirtyTiles();
+
+		int chunkSize = CHUNK_TILES * TILE_SIZE;
+		int chunkRows = (getRows() + CHUNK_TILES - 1) / CHUNK_TILES;
+		int chunkCols = (getCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+		int top = 0, left = 0, bottom = chunkRows - 1, right = chunkCols - 1;
+		Rectangle clip = g.getClipBounds();
+		if (clip != null) {
+			top = Math.max(top, Math.floorDiv(clip.y, chunkSize));
+			left = Math.max(left, Math.floorDiv(clip.x, chunkSize));
+			bottom = Math.min(bottom, Math.floorDiv(clip.y + clip.height - 1, chunkSize));
+			right = Math.min(right, Math.floorDiv(clip.x + clip.width - 1, chunkSize));
+		}
+
+		if (rotated || (bottom - top + 1) * (right - left + 1) > maxChunks) {
+			// More than the cache holds: caching would only evict chunks built this frame.
+			drawTiles(g, top * CHUNK_TILES, left * CHUNK_TILES, (bottom + 1) * CHUNK_TILES, (right + 1) * CHUNK_TILES);
+			return;
+		}
+		// Chunks are already at device scale; blit them with only the translation.
+		g2.setTransform(AffineTransform.getTranslateInstance(Math.round(t.getTranslateX()),
+				Math.round(t.getTranslateY())));
+		for (int cr = top; cr <= bottom; cr++) {
+			for (int cc = left; cc <= right; cc++) {
+				BufferedImage chunk = chunks.get(cr * chunkCols + cc);
+				if (chunk == null) {
+					chunk = buildChunk(gc, cr, cc);
+					chunks.put(cr * chunkCols + cc, chunk);
 				}
+				g2.drawImage(chunk, toDevice(cc * chunkSize, chunkScaleX), toDevice(cr * chunkSize, chunkScaleY), null);
 			}
 		}
+		g2.setTransform(t);
+	}
+
+	/** Returns how many full chunks rendered at the given scale fit in the pixel budget. */
+	private static int chunkLimit(double scaleX, double scaleY) {
+		int chunkSize = CHUNK_TILES * TILE_SIZE;
+		long pixels = (long) Math.max(1, toDevice(chunkSize, Math.abs(scaleX)))
+				* Math.max(1, toDevice(chunkSize, Math.abs(scaleY)));
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, MAX_CHUNK_PIXELS / pixels));
+	}
+
+	/** Converts a map pixel coordinate to a device pixel at the given scale. */
+	private static int toDevice(int mapPixel, double scale) {
+		return (int) Math.round(mapPixel * scale);
+	}
+
+	/** Draws the tiles in a row and column range directly, clamped to the map. */
+	private void drawTiles(Graphics g, int top, int left, int bottom, int right) {
+		for (int row = top; row < Math.min(bottom, getRows()); row++)
+			for (int col = left; col < Math.min(right, getCols()); col++)
+				drawTile(g, row, col);
+	}
+
+	/** Creates one chunk image and renders its tiles into it. */
+	private BufferedImage buildChunk(GraphicsConfiguration gc, int chunkRow, int chunkCol) {
+		int row0 = chunkRow * CHUNK_TILES, col0 = chunkCol * CHUNK_TILES;
+		int rows = Math.min(CHUNK_TILES, getRows() - row0), cols = Math.min(CHUNK_TILES, getCols() - col0);
+		int x0 = col0 * TILE_SIZE, y0 = row0 * TILE_SIZE;
+		BufferedImage chunk = gc.createCompatibleImage(
+				toDevice(x0 + cols * TILE_SIZE, chunkScaleX) - toDevice(x0, chunkScaleX),
+				toDevice(y0 + rows * TILE_SIZE, chunkScaleY) - toDevice(y0, chunkScaleY), Transparency.OPAQUE);
+		Graphics2D cg = chunk.createGraphics();
+		prepareChunkGraphics(cg, chunkRow, chunkCol);
+		drawTiles(cg, row0, col0, row0 + rows, col0 + cols);
+		cg.dispose();
+		return chunk;
+	}
+
+	/**
+	 * Re-renders the tiles changed since the last frame into their chunks. Tiles in
+	 * chunks that are not cached need nothing; those are rendered fresh when they
+	 * come into view.
+	 */
+	private void redrawDirtyTiles() {
+		int[] tiles;
+		int count;
+		synchronized (this) {
+			if (dirtyCount == 0)
+				return;
+			tiles = Arrays.copyOf(dirtyList, dirtyCount);
+			count = dirtyCount;
+			for (int i = 0; i < count; i++)
+				dirty[tiles[i]] = false;
+			dirtyCount = 0;
+		}
+		int cols = getCols(), chunkCols = (cols + CHUNK_TILES - 1) / CHUNK_TILES;
+		for (int i = 0; i < count; i++) {
+			int row = tiles[i] / cols, col = tiles[i] % cols;
+			int chunkRow = row / CHUNK_TILES, chunkCol = col / CHUNK_TILES;
+			BufferedImage chunk = chunks.get(chunkRow * chunkCols + chunkCol);
+			if (chunk == null)
+				continue;
+			// Tile images may be translucent, so start from the same black as a fresh chunk.
+			// The clip is set in chunk pixels, before the scale, to match the tile's rounded edges.
+			int cx = toDevice(chunkCol * CHUNK_TILES * TILE_SIZE, chunkScaleX);
+			int cy = toDevice(chunkRow * CHUNK_TILES * TILE_SIZE, chunkScaleY);
+			int x0 = toDevice(col * TILE_SIZE, chunkScaleX), x1 = toDevice((col + 1) * TILE_SIZE, chunkScaleX);
+			int y0 = toDevice(row * TILE_SIZE, chunkScaleY), y1 = toDevice((row + 1) * TILE_SIZE, chunkScaleY);
+			Graphics2D cg = chunk.createGraphics();
+			cg.setClip(x0 - cx, y0 - cy, x1 - x0, y1 - y0);
+			cg.setColor(Color.BLACK);
+			cg.fillRect(x0 - cx, y0 - cy, x1 - x0, y1 - y0);
+			prepareChunkGraphics(cg, chunkRow, chunkCol);
+			drawTile(cg, row, col);
+			cg.dispose();
+		}
+	}
+
+	/**
+	 * Maps a chunk's graphics context to map coordinates at the chunk scale, with
+	 * the same hints as the panel.
+	 */
+	private void prepareChunkGraphics(Graphics2D cg, int chunkRow, int chunkCol) {
+		cg.translate(-toDevice(chunkCol * CHUNK_TILES * TILE_SIZE, chunkScaleX),
+				-toDevice(chunkRow * CHUNK_TILES * TILE_SIZE, chunkScaleY));
+		cg.scale(chunkScaleX, chunkScaleY);
+		cg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+	}
+
+	/**
+	 * Records that a tile's cached pixels are stale. Called from the game thread
+	 * while the chunks are drawn on the event thread, hence the lock.
+	 */
+	private synchronized void markDirty(int idx) {
+		if (!drawn)
+			return;
+		if (dirty == null)
+			dirty = new boolean[getRows() * getCols()];
+		if (dirty[idx])
+			return;
+		dirty[idx] = true;
+		if (dirtyCount == dirtyList.length)
+			dirtyList = Arrays.copyOf(dirtyList, dirtyCount * 2);
+		dirtyList[dirtyCount++] = idx;
+	}
+
+	/** Draws one tile and its overlay at its map position. */
+	private void drawTile(Graphics g, int row, int col) {
+		int x = col * TILE_SIZE, y = row * TILE_SIZE;
+		int t = tiles[index(row, col)] & 0xFF;
+		char tile = TILE_CHARS.charAt(t & CODE_MASK);
+		int v = t >>> CODE_BITS;
+
+		if (tile == '#') {
+			atlas.draw(g, SpriteLoader.WALL_TILE + v, x, y);
+		} else {
+			atlas.draw(g, SpriteLoader.PATH_TILE + v, x, y);
+			if (tile == 'E')
+				drawExitOverlay(g, x, y);
+			if (tile == 'T')
+				drawTrapOverlay(g, x, y);
+			if (tile == 'D')
+				drawDoorOverlay(g, x, y);
+		}
 	}
 
 	/** Draws a green circle with "EXIT" text over the exit tile. */
 	private void drawExitOverlay(Graphics g, int x, int y) {
 		int s = TILE_SIZE;
-		g.setColor(new Color(0, 200, 100, 180));
+		g.setColor(EXIT_COLOR);
 		g.fillOval(x + 4, y + 4, s - 8, s - 8);
 		g.setColor(Color.WHITE);
-		g.setFont(new Font("SansSerif", Font.BOLD, 10));
+		g.setFont(EXIT_FONT);
 		g.drawString("EXIT", x + 2, y + s / 2 + 4);
 	}
 
 	/** Draws a red diamond over the trap tile. */
 	private void drawTrapOverlay(Graphics g, int x, int y) {
 		int s = TILE_SIZE;
-		g.setColor(new Color(200, 50, 50, 200));
+		g.setColor(TRAP_COLOR);
 		int[] xp = { x + s / 2, x + s - 4, x + s / 2, x + 4 };
 		int[] yp = { y + 4, y + s / 2, y + s - 4, y + s / 2 };
 		g.fillPolygon(xp, yp, 4);
@@ -257,9 +693,9 @@ public class MazeMap {
 	/** Draws a brown door with a gold handle over the door tile. */
 	private void drawDoorOverlay(Graphics g, int x, int y) {
 		int s = TILE_SIZE;
-		g.setColor(new Color(120, 80, 40));
+		g.setColor(DOOR_COLOR);
 		g.fillRect(x + 6, y + 4, s - 12, s - 8);
-		g.setColor(new Color(200, 160, 60));
+		g.setColor(DOOR_HANDLE_COLOR);
 		g.fillOval(x + s / 2 - 3, y + s / 2 - 3, 6, 6);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,388 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Reusable breadth-first search engine over a {@link MazeMap}.
+ *
+ * <p>
+ * All scratch state is allocated once per map and reused by every query, so a
+ * search produces no garbage: tiles are packed as {@code row * cols + col},
+ * the frontier is an {@link IntRingQueue}, and "visited" is a generation stamp
+ * per tile so nothing has to be cleared between searches.
+ *
+ * <p>
+ * A full flood can also be kept up to date incrementally: after a tile opens or
+ * closes, {@link #repairFlood(int, int)} fixes only the distances that depended
+ * on it, in the spirit of LPA* specialised to unit-cost grids.
+ *
+ * <p>
+ * Not thread-safe; each map owns its own instance.
+ *
+ * @see MazeMap#getPathFinder()
+ */
+public class PathFinder {
+
+	/** Distance reported for tiles the last search did not reach. */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final MazeMap map;
+	private final int rows, cols;
+
+	private final IntRingQueue queue;
+
+	/** Generation in which each tile was last reached. */
+	private final int[] visitedGen;
+	private int generation;
+
+	/** Steps from the search source, valid where {@code visitedGen == generation}. */
+	private final int[] dist;
+
+	/** Packed tile each tile was reached from. */
+	private final int[] parent;
+
+	/** Packed tiles of the last path found, excluding the start tile. */
+	private final int[] path;
+	private int pathLength;
+
+	/** Inclusive tile rectangle the current search may enter. */
+	private int top, left, bottom, right;
+
+	/** Packed source of the last {@link #floodFrom}, or -1 after a path query. */
+	private int floodSource = -1;
+
+	/** Repair scratch, allocated on the first {@link #repairFlood} call. */
+	private int[] orphans;
+	private long[] repairSeeds;
+
+	/**
+	 * @param map the maze to search
+	 */
+	PathFinder(MazeMap map) {
+		this.map = map;
+		this.rows = map.getRows();
+		this.cols = map.getCols();
+		int n = rows * cols;
+		queue = new IntRingQueue(n);
+		visitedGen = new int[n];
+		dist = new int[n];
+		parent = new int[n];
+		path = new int[n];
+		nextGeneration();
+	}
+
+	/**
+	 * Finds a shortest path between two tiles. On success the steps are available
+	 * through {@link #getPathRow(int)} and {@link #getPathCol(int)}.
+	 *
+	 * @return number of steps in the path, or {@code -1} if the goal cannot be
+	 *         reached (or equals the start)
+	 */
+	public int findPath(int startRow, int startCol, int goalRow, int goalCol) {
+		return findPathWithin(startRow, startCol, goalRow, goalCol, 0, 0, rows - 1, cols - 1);
+	}
+
+	/**
+	 * Like {@link #findPath} but only searches tiles inside the given inclusive
+	 * rectangle. Used to refine paths inside one cluster of a larger map.
+	 */
+	public int findPathWithin(int startRow, int startCol, int goalRow, int goalCol, int top, int left, int bottom,
+			int right) {
+		pathLength = 0;
+		floodSource = -1;
+		if (!map.isWalkable(startRow, startCol) || !map.isWalkable(goalRow, goalCol))
+			return -1;
+		int start = startRow * cols + startCol, goal = goalRow * cols + goalCol;
+		setBounds(top, left, bottom, right);
+		if (start == goal || !search(start, goal))
+			return -1;
+
+		pathLength = dist[goal];
+		for (int i = pathLength - 1, cur = goal; i >= 0; i--, cur = parent[cur])
+			path[i] = cur;
+		return pathLength;
+	}
+
+	/**
+	 * Runs a full BFS from the given tile. Afterwards {@link #getDistance(int, int)}
+	 * reports the step count from that tile to every other tile.
+	 */
+	public void floodFrom(int row, int col) {
+		floodWithin(row, col, 0, 0, rows - 1, cols - 1);
+		floodSource = row * cols + col;
+	}
+
+	/**
+	 * Like {@link #floodFrom} but only reaches tiles inside the given inclusive
+	 * rectangle. A bounded flood cannot be repaired with {@link #repairFlood}.
+	 */
+	public void floodWithin(int row, int col, int top, int left, int bottom, int right) {
+		pathLength = 0;
+		floodSource = -1;
+		if (!map.isWalkable(row, col)) {
+			nextGeneration();
+			return;
+		}
+		setBounds(top, left, bottom, right);
+		search(row * cols + col, -1);
+	}
+
+	private void setBounds(int top, int left, int bottom, int right) {
+		this.top = Math.max(0, top);
+		this.left = Math.max(0, left);
+		this.bottom = Math.min(rows - 1, bottom);
+		this.right = Math.min(cols - 1, right);
+	}
+
+	/**
+	 * Returns the steps from the last search's source to the given tile, or
+	 * {@link #UNREACHABLE}. After {@link #findPath} this only covers tiles reached
+	 * before the goal was found.
+	 */
+	public int getDistance(int row, int col) {
+		if (row < 0 || row >= rows || col < 0 || col >= cols)
+			return UNREACHABLE;
+		int idx = row * cols + col;
+		return visitedGen[idx] == generation ? dist[idx] : UNREACHABLE;
+	}
+
+	/** Returns the number of steps in the last path found. */
+	public int getPathLength() {
+		return pathLength;
+	}
+
+	/** Returns the row of step {@code i} of the last path found. */
+	public int getPathRow(int i) {
+		return path[i] / cols;
+	}
+
+	/** Returns the column of step {@code i} of the last path found. */
+	public int getPathCol(int i) {
+		return path[i] % cols;
+	}
+
+	/**
+	 * Repairs the distances of the last {@link #floodFrom} after the tile at the
+	 * given position became walkable or blocked. Only tiles whose distance
+	 * actually changes are visited. Does nothing if the last search was a
+	 * {@link #findPath} query.
+	 *
+	 * @param row row of the tile that changed
+	 * @param col column of the tile that changed
+	 */
+	public void repairFlood(int row, int col) {
+		if (floodSource < 0)
+			return;
+		int idx = row * cols + col;
+		if (idx == floodSource)
+			floodFrom(row, col);
+		else if (map.isWalkable(row, col))
+			repairOpened(idx);
+		else
+			repairBlocked(idx);
+	}
+
+	/**
+	 * A tile opened: give it the best distance among its neighbours and push the
+	 * improvement outward until no neighbour gets shorter.
+	 */
+	private void repairOpened(int idx) {
+		int best = UNREACHABLE;
+		int r = idx / cols, c = idx - r * cols;
+		if (r > 0)
+			best = Math.min(best, reachedDist(idx - cols));
+		if (r < rows - 1)
+			best = Math.min(best, reachedDist(idx + cols));
+		if (c > 0)
+			best = Math.min(best, reachedDist(idx - 1));
+		if (c < cols - 1)
+			best = Math.min(best, reachedDist(idx + 1));
+		if (best == UNREACHABLE)
+			return;
+
+		reach(idx, best + 1);
+		queue.clear();
+		queue.add(idx);
+		propagate(null, 0);
+	}
+
+	/**
+	 * A tile closed: unreach every tile whose only shortest route ran through it,
+	 * then re-derive those tiles' distances from the untouched tiles bordering
+	 * them, cheapest first.
+	 */
+	private void repairBlocked(int idx) {
+		if (visitedGen[idx] != generation)
+			return;
+		if (orphans == null) {
+			orphans = new int[rows * cols];
+			repairSeeds = new long[rows * cols];
+		}
+
+		// Pass 1: collect orphans in increasing old-distance order. A tile is an
+		// orphan if no still-reached neighbour sits one step closer to the source.
+		int count = 0;
+		visitedGen[idx] = generation - 1;
+		orphans[count++] = idx;
+		queue.clear();
+		queue.add(idx);
+		while (!queue.isEmpty()) {
+			int u = queue.poll();
+			int r = u / cols, c = u - r * cols;
+			int next = dist[u] + 1;
+			if (r > 0 && orphan(u - cols, next))
+				orphans[count++] = u - cols;
+			if (r < rows - 1 && orphan(u + cols, next))
+				orphans[count++] = u + cols;
+			if (c > 0 && orphan(u - 1, next))
+				orphans[count++] = u - 1;
+			if (c < cols - 1 && orphan(u + 1, next))
+				orphans[count++] = u + 1;
+		}
+
+		// Pass 2: seed each orphan with one step past its best reached neighbour,
+		// sorted by that tentative distance (high 32 bits) so seeds merge into the
+		// BFS frontier in order.
+		int seeds = 0;
+		for (int i = 1; i < count; i++) {
+			int o = orphans[i];
+			int r = o / cols, c = o - r * cols;
+			int best = UNREACHABLE;
+			if (r > 0)
+				best = Math.min(best, reachedDist(o - cols));
+			if (r < rows - 1)
+				best = Math.min(best, reachedDist(o + cols));
+			if (c > 0)
+				best = Math.min(best, reachedDist(o - 1));
+			if (c < cols - 1)
+				best = Math.min(best, reachedDist(o + 1));
+			if (best != UNREACHABLE)
+				repairSeeds[seeds++] = ((long) (best + 1) << 32) | o;
+		}
+		Arrays.sort(repairSeeds, 0, seeds);
+
+		queue.clear();
+		propagate(repairSeeds, seeds);
+	}
+
+	/**
+	 * Checks whether a neighbour of an orphan lost its support; if so it is
+	 * unreached and queued so its own dependants are examined.
+	 */
+	private boolean orphan(int v, int expectedDist) {
+		if (visitedGen[v] != generation || dist[v] != expectedDist)
+			return false;
+		int r = v / cols, c = v - r * cols, closer = expectedDist - 1;
+		if ((r > 0 && reachedDist(v - cols) == closer) || (r < rows - 1 && reachedDist(v + cols) == closer)
+				|| (c > 0 && reachedDist(v - 1) == closer) || (c < cols - 1 && reachedDist(v + 1) == closer))
+			return false;
+		visitedGen[v] = generation - 1;
+		queue.add(v);
+		return true;
+	}
+
+	/**
+	 * Relaxes outward from the queued tiles, merging in sorted seeds
+	 * ({@code distance << 32 | tile}) whenever they are no farther than the
+	 * queue's front, so tiles are finalised in non-decreasing distance order.
+	 */
+	private void propagate(long[] seeds, int seedCount) {
+		int si = 0;
+		while (si < seedCount || !queue.isEmpty()) {
+			int u;
+			if (si < seedCount && (queue.isEmpty() || (int) (seeds[si] >>> 32) <= dist[queue.peek()])) {
+				long seed = seeds[si++];
+				u = (int) seed;
+				int d = (int) (seed >>> 32);
+				if (visitedGen[u] == generation && dist[u] <= d)
+					continue;
+				reach(u, d);
+			} else {
+				u = queue.poll();
+			}
+
+			int r = u / cols, c = u - r * cols, nd = dist[u] + 1;
+			if (r > 0)
+				relax(u - cols, r - 1, c, nd);
+			if (r < rows - 1)
+				relax(u + cols, r + 1, c, nd);
+			if (c > 0)
+				relax(u - 1, r, c - 1, nd);
+			if (c < cols - 1)
+				relax(u + 1, r, c + 1, nd);
+		}
+	}
+
+	/** Lowers a walkable tile's distance to {@code nd} if that is an improvement. */
+	private void relax(int idx, int r, int c, int nd) {
+		if (visitedGen[idx] == generation && dist[idx] <= nd)
+			return;
+		if (!map.isOpen(r, c))
+			return;
+		reach(idx, nd);
+		queue.add(idx);
+	}
+
+	/** Marks a tile as reached this generation with the given distance. */
+	private void reach(int idx, int d) {
+		visitedGen[idx] = generation;
+		dist[idx] = d;
+	}
+
+	/** Returns a tile's distance if it is reached this generation, else UNREACHABLE. */
+	private int reachedDist(int idx) {
+		return visitedGen[idx] == generation ? dist[idx] : UNREACHABLE;
+	}
+
+	/**
+	 * Core BFS from a packed source tile within the current bounds. Stops early
+	 * once {@code goal} is reached unless it is {@code -1}.
+	 *
+	 * @return {@code true} if the goal was reached
+	 */
+	private boolean search(int source, int goal) {
+		nextGeneration();
+		queue.clear();
+		visitedGen[source] = generation;
+		dist[source] = 0;
+		queue.add(source);
+
+		while (!queue.isEmpty()) {
+			int cur = queue.poll();
+			int r = cur / cols, c = cur - r * cols;
+			int nd = dist[cur] + 1;
+			if ((r > top && visit(cur - cols, r - 1, c, cur, nd, goal))
+					|| (r < bottom && visit(cur + cols, r + 1, c, cur, nd, goal))
+					|| (c > left && visit(cur - 1, r, c - 1, cur, nd, goal))
+					|| (c < right && visit(cur + 1, r, c + 1, cur, nd, goal)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Enqueues one neighbour if it is walkable and not yet visited this
+	 * generation.
+	 *
+	 * @return {@code true} if the neighbour is the goal
+	 */
+	private boolean visit(int idx, int r, int c, int from, int nd, int goal) {
+		if (visitedGen[idx] == generation || !map.isOpen(r, c))
+			return false;
+		visitedGen[idx] = generation;
+		dist[idx] = nd;
+		parent[idx] = from;
+		if (idx == goal)
+			return true;
+		queue.add(idx);
+		return false;
+	}
+
+	/** Starts a new search generation, clearing the stamps only on wrap-around. */
+	private void nextGeneration() {
+		if (++generation == 0) {
+			Arrays.fill(visitedGen, 0);
+			generation = 1;
+		}
+	}
+}
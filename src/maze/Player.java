@@ -1,10 +1,8 @@
 package maze;
 
-import java.awt.AlphaComposite;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
-import java.awt.image.BufferedImage;
 
 public class Player extends Entity {
 
@@ -33,15 +31,24 @@ public class Player extends Entity {
 
 	private boolean movingUp, movingDown, movingLeft, movingRight;
 
-	private final BufferedImage[][] frames;
-
 	private AnimationState animState = AnimationState.IDLE;
 	private int animTick = 0;
 	private int animFrame = 0;
 
 	public Player(float x, float y) {
 		super(x, y);
-		frames = SpriteLoader.loadPlayerFrames(MazeMap.TILE_SIZE);
+	}
+
+	/**
+	 * Sets the held movement and block inputs directly. Used by headless drivers
+	 * in place of key events.
+	 */
+	public void setInput(boolean up, boolean down, boolean left, boolean right, boolean block) {
+		movingUp = up;
+		movingDown = down;
+		movingLeft = left;
+		movingRight = right;
+		blockHeld = block;
 	}
 
 	/**
@@ -82,6 +89,7 @@ public class Player extends Entity {
 	 */
 	@Override
 	public void update(MazeMap map) {
+		savePosition();
 		if (damageCooldown > 0)
 			damageCooldown--;
 
@@ -172,35 +180,40 @@ public class Player extends Entity {
 
 	/**
 	 * Draws the player sprite. Flashes at 40% opacity during invincibility frames;
-	 * shows a pulsing blue glow while blocking.
+	 * shows a pulsing blue glow while blocking. Both effects are pre-rendered
+	 * sprites from the {@link EffectCache}.
 	 *
 	 * @param g graphics context
 	 */
 	@Override
 	public void draw(Graphics g) {
-		Graphics2D g2 = (Graphics2D) g;
-
-		if (damageCooldown > 0 && (damageCooldown / 6) % 2 == 0)
-			g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.4f));
-
+		// Fetched on every draw to pick up the loaded sprites; headless simulations never call this.
+		TextureAtlas atlas = SpriteLoader.getAtlas();
+		EffectCache effects = EffectCache.get();
+		int px = getPixelX(), py = getPixelY();
 		int dirIndex = animStateToIndex();
 		int frameIndex = (animState == AnimationState.IDLE) ? 0 : animFrame;
-		g2.drawImage(frames[dirIndex][frameIndex], getPixelX(), getPixelY(), null);
-		g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+		int frame = dirIndex * NUM_FRAMES + frameIndex;
+
+		if (damageCooldown > 0 && (damageCooldown / 6) % 2 == 0)
+			effects.drawFlashedPlayer(g, frame, px, py);
+		else
+			atlas.draw(g, SpriteLoader.PLAYER_SPRITE + frame, px, py);
 
 		if (blocking) {
-			int px = getPixelX(), py = getPixelY(), s = MazeMap.TILE_SIZE;
 			float pulse = (float) Math.abs(Math.sin(blockTicks * 0.18));
-			int alpha = 120 + (int) (80 * pulse);
-			g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f));
-			g2.setColor(new java.awt.Color(80, 160, 255));
-			g2.fillOval(px - 4, py - 4, s + 8, s + 8);
-			g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-			g2.setColor(new java.awt.Color(180, 220, 255));
-			g2.drawOval(px - 4, py - 4, s + 8, s + 8);
+			effects.drawShieldGlow(g, EffectCache.SHIELD_MIN_ALPHA + (int) (80 * pulse), px, py);
 		}
 	}
 
+	/** Includes the 4 px shield glow, whether or not it is showing. */
+	@Override
+	public Rectangle getDrawBounds(Rectangle out) {
+		int s = MazeMap.TILE_SIZE;
+		out.setBounds(getPixelX() - 4, getPixelY() - 4, s + 9, s + 9);
+		return out;
+	}
+
 	/** Maps the current animation state to a sprite-sheet direction row index. */
 	private int animStateToIndex() {
 		return switch (animState) {
@@ -212,6 +225,11 @@ public class Player extends Entity {
 		};
 	}
 
+	/** Returns an immutable copy of the state zombies read each tick. */
+	public PlayerSnapshot snapshot() {
+		return new PlayerSnapshot(getPixelX(), getPixelY());
+	}
+
 	/** Returns lives remaining. */
 	public int getLives() {
 		return lives;
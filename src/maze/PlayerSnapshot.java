@@ -0,0 +1,24 @@
+package maze;
+
+/**
+ * Immutable copy of the player state zombies read during a tick.
+ *
+ * <p>
+ * Taken once before zombies update so every zombie, on whichever thread, sees
+ * the same player regardless of update order.
+ *
+ * @param pixelX the player's X position rounded to the nearest pixel
+ * @param pixelY the player's Y position rounded to the nearest pixel
+ */
+public record PlayerSnapshot(int pixelX, int pixelY) {
+
+	/** Returns the row of the tile containing the player's top-left corner. */
+	public int row() {
+		return pixelY / MazeMap.TILE_SIZE;
+	}
+
+	/** Returns the column of the tile containing the player's top-left corner. */
+	public int col() {
+		return pixelX / MazeMap.TILE_SIZE;
+	}
+}
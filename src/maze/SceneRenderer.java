@@ -0,0 +1,96 @@
+package maze;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+
+/**
+ * Draws a {@link GameWorld} as seen through a {@link Camera}: map, gems,
+ * zombies, player, HUD and the state overlay. Shared by the Swing
+ * {@link GamePanel} and the actively rendered {@link GameCanvas}.
+ *
+ * <p>
+ * Tiles and entities outside the graphics clip are skipped. Not thread-safe;
+ * each front end keeps its own renderer on its drawing thread.
+ */
+public class SceneRenderer {
+
+	private final HUD hud = new HUD();
+
+	/** Scratch rectangle for culling. */
+	private final Rectangle bounds = new Rectangle();
+
+	/**
+	 * Renders one frame with entities at their current positions. The area outside
+	 * the map must already be cleared.
+	 *
+	 * @param g        graphics context, in screen coordinates
+	 * @param world    the world to draw
+	 * @param position camera position from {@link Camera#getPosition()}
+	 * @param width    screen width in pixels
+	 * @param height   screen height in pixels
+	 */
+	public void render(Graphics2D g, GameWorld world, long position, int width, int height) {
+		render(g, world, position, width, height, 1.0);
+	}
+
+	/**
+	 * Renders one frame with moving entities interpolated between their previous
+	 * and current tick positions. The area outside the map must already be
+	 * cleared.
+	 *
+	 * @param g        graphics context, in screen coordinates
+	 * @param world    the world to draw
+	 * @param position camera position from {@link Camera#getPosition()}
+	 * @param width    screen width in pixels
+	 * @param height   screen height in pixels
+	 * @param alpha    fraction of a tick elapsed since the last update, 0 to 1
+	 */
+	public void render(Graphics2D g, GameWorld world, long position, int width, int height, double alpha) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+		g.translate(-Camera.x(position), -Camera.y(position));
+		Rectangle clip = g.getClipBounds();
+		Player player = world.getPlayer();
+		world.getMap().draw(g);
+		for (Gem gem : world.getGems())
+			if (isVisible(gem, clip))
+				gem.draw(g);
+		for (Zombie z : world.getZombies())
+			drawInterpolated(g, z, clip, alpha);
+		if (player != null)
+			drawInterpolated(g, player, clip, alpha);
+		g.translate(Camera.x(position), Camera.y(position));
+
+		clip = g.getClipBounds();
+		if (player != null && (clip == null || clip.y < HUD.BAR_HEIGHT))
+			hud.draw(g, player, world.getCurrentLevel(), world.gemsRemaining(), width);
+
+		switch (world.getState()) {
+		case GAME_OVER -> hud.drawGameOver(g, width, height, player.getScore());
+		case LEVEL_COMPLETE -> hud.drawLevelComplete(g, width, height, world.getCurrentLevel(), player.getScore());
+		case WIN -> hud.drawWin(g, width, height, player != null ? player.getScore() : 0);
+		default -> {
+		}
+		}
+	}
+
+	/**
+	 * Draws a moving entity shifted from its current position to its interpolated
+	 * one, if that lands inside the clip.
+	 */
+	private void drawInterpolated(Graphics2D g, Entity e, Rectangle clip, double alpha) {
+		int dx = e.getInterpolatedX(alpha) - e.getPixelX(), dy = e.getInterpolatedY(alpha) - e.getPixelY();
+		e.getDrawBounds(bounds).translate(dx, dy);
+		if (clip != null && !clip.intersects(bounds))
+			return;
+		g.translate(dx, dy);
+		e.draw(g);
+		g.translate(-dx, -dy);
+	}
+
+	/** Returns {@code true} if any of the entity's drawing can land inside the clip. */
+	private boolean isVisible(Entity e, Rectangle clip) {
+		return clip == null || clip.intersects(e.getDrawBounds(bounds));
+	}
+}
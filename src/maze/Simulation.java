@@ -0,0 +1,57 @@
+package maze;
+
+import java.util.Random;
+
+/**
+ * Headless entry point: steps a {@link GameWorld} as fast as the CPU allows
+ * with a randomly wandering player, then reports the achieved tick rate.
+ *
+ * <p>
+ * Usage: {@code java -Djava.awt.headless=true maze.Simulation [ticks] [seed]}
+ */
+public class Simulation {
+
+	/** Ticks between changes of the simulated player's input. */
+	private static final int INPUT_HOLD = 30;
+
+	/** Runs the simulation. */
+	public static void main(String[] args) {
+		long ticks = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+		GameWorld world = new GameWorld(seed);
+		Random input = new Random(seed);
+		int levelsCleared = 0, deaths = 0;
+
+		long start = System.nanoTime();
+		for (long t = 0; t < ticks; t++) {
+			if (t % INPUT_HOLD == 0) {
+				int dir = input.nextInt(5);
+				world.getPlayer().setInput(dir == 0, dir == 1, dir == 2, dir == 3, input.nextInt(10) == 0);
+			}
+			world.update();
+
+			switch (world.getState()) {
+			case LEVEL_COMPLETE -> {
+				levelsCleared++;
+				world.advanceLevel();
+			}
+			case WIN -> {
+				levelsCleared++;
+				world.restart();
+			}
+			case GAME_OVER -> {
+				deaths++;
+				world.restart();
+			}
+			default -> {
+			}
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("%d ticks in %.2f s: %.0f ticks/s (%.0fx real time)%n", ticks, seconds, ticks / seconds,
+				ticks / seconds / GamePanel.FPS);
+		System.out.printf("levels cleared: %d, deaths: %d%n", levelsCleared, deaths);
+	}
+}
@@ -0,0 +1,170 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Uniform tile-aligned spatial hash of entities, so collision and proximity
+ * checks only visit the cells around a point instead of every entity on the
+ * level.
+ *
+ * <p>
+ * Each entity is identified by the integer id returned from {@link #add} and is
+ * filed under the tile containing the centre of its sprite. Cells are
+ * intrusive doubly-linked lists held in flat arrays, so moving an entity
+ * between cells is O(1) and nothing is allocated once the arrays have grown to
+ * the level's entity count. Two entities whose collision boxes overlap always
+ * have centres in the same or adjacent tiles, so a radius-1 query finds every
+ * candidate.
+ *
+ * <p>
+ * Not thread-safe; owned and updated by the game thread.
+ */
+public class SpatialGrid {
+
+	private static final int NONE = -1;
+
+	private final int rows, cols;
+
+	/** First entity id in each cell, or {@link #NONE}. */
+	private final int[] head;
+
+	private int[] next = new int[16];
+	private int[] prev = new int[16];
+
+	/** Cell each entity is filed under, or {@link #NONE} once removed. */
+	private int[] cellOf = new int[16];
+
+	private int size = 0;
+
+	private int[] hits = new int[16];
+	private int hitCount = 0;
+
+	/**
+	 * @param rows number of tile rows covered
+	 * @param cols number of tile columns covered
+	 */
+	public SpatialGrid(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		head = new int[rows * cols];
+		Arrays.fill(head, NONE);
+	}
+
+	/** Removes every entity; ids restart from 0. */
+	public void clear() {
+		Arrays.fill(head, NONE);
+		size = 0;
+		hitCount = 0;
+	}
+
+	/**
+	 * Files a new entity at the given position.
+	 *
+	 * @param pixelX entity's X position in pixels (top-left corner)
+	 * @param pixelY entity's Y position in pixels (top-left corner)
+	 * @return the entity's id; ids are handed out in order starting from 0
+	 */
+	public int add(int pixelX, int pixelY) {
+		if (size == cellOf.length) {
+			next = Arrays.copyOf(next, size * 2);
+			prev = Arrays.copyOf(prev, size * 2);
+			cellOf = Arrays.copyOf(cellOf, size * 2);
+		}
+		int id = size++;
+		link(id, cellAt(pixelX, pixelY));
+		return id;
+	}
+
+	/**
+	 * Refiles an entity after it has moved. Cheap when it is still in the same
+	 * tile; does nothing for removed entities.
+	 *
+	 * @param id     entity id from {@link #add}
+	 * @param pixelX new X position in pixels
+	 * @param pixelY new Y position in pixels
+	 */
+	public void move(int id, int pixelX, int pixelY) {
+		int cell = cellAt(pixelX, pixelY);
+		if (cellOf[id] == cell || cellOf[id] == NONE)
+			return;
+		unlink(id);
+		link(id, cell);
+	}
+
+	/**
+	 * Takes an entity out of the grid; later queries will not report it.
+	 *
+	 * @param id entity id from {@link #add}
+	 */
+	public void remove(int id) {
+		if (cellOf[id] == NONE)
+			return;
+		unlink(id);
+		cellOf[id] = NONE;
+	}
+
+	/**
+	 * Collects the ids of every entity filed within {@code radius} tiles of the
+	 * tile containing the given entity position. Read them with
+	 * {@link #getHit(int)}; they are valid until the next query.
+	 *
+	 * @param pixelX X position in pixels (top-left corner, as for entities)
+	 * @param pixelY Y position in pixels (top-left corner, as for entities)
+	 * @param radius search radius in tiles; 1 covers every possible collision
+	 * @return number of ids found, in no particular order
+	 */
+	public int queryNear(int pixelX, int pixelY, int radius) {
+		int cell = cellAt(pixelX, pixelY);
+		int row = cell / cols, col = cell % cols;
+		int top = Math.max(0, row - radius), bottom = Math.min(rows - 1, row + radius);
+		int left = Math.max(0, col - radius), right = Math.min(cols - 1, col + radius);
+
+		hitCount = 0;
+		for (int r = top; r <= bottom; r++) {
+			for (int c = left; c <= right; c++) {
+				for (int id = head[r * cols + c]; id != NONE; id = next[id]) {
+					if (hitCount == hits.length)
+						hits = Arrays.copyOf(hits, hitCount * 2);
+					hits[hitCount++] = id;
+				}
+			}
+		}
+		return hitCount;
+	}
+
+	/**
+	 * Returns the {@code i}-th id found by the last {@link #queryNear} call.
+	 *
+	 * @param i index into the results, {@code 0 <= i < hit count}
+	 */
+	public int getHit(int i) {
+		return hits[i];
+	}
+
+	/** Returns the cell holding the centre of a tile-sized sprite at this position. */
+	private int cellAt(int pixelX, int pixelY) {
+		int half = MazeMap.TILE_SIZE / 2;
+		int row = Math.max(0, Math.min(rows - 1, (pixelY + half) / MazeMap.TILE_SIZE));
+		int col = Math.max(0, Math.min(cols - 1, (pixelX + half) / MazeMap.TILE_SIZE));
+		return row * cols + col;
+	}
+
+	private void link(int id, int cell) {
+		cellOf[id] = cell;
+		prev[id] = NONE;
+		next[id] = head[cell];
+		if (head[cell] != NONE)
+			prev[head[cell]] = id;
+		head[cell] = id;
+	}
+
+	private void unlink(int id) {
+		int cell = cellOf[id];
+		if (prev[id] != NONE)
+			next[prev[id]] = next[id];
+		else
+			head[cell] = next[id];
+		if (next[id] != NONE)
+			prev[next[id]] = prev[id];
+	}
+}
@@ -0,0 +1,80 @@
+package maze;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Size-bounded cache of sprite images keyed by asset id and target size.
+ *
+ * <p>
+ * Used for the rescaled copies of atlas images drawn at zoom levels and HiDPI
+ * scales other than 1:1, so each size is resampled once rather than every
+ * frame. Once the cached images exceed the pixel budget the least recently
+ * drawn ones are dropped, which lets sizes that are no longer on screen go.
+ * Synchronized, since either front end may draw through it.
+ */
+public class SpriteCache {
+
+	private final long maxPixels;
+	private long pixels = 0;
+
+	/** Cached images in least recently used order, keyed by {@link #key}. */
+	private final LinkedHashMap<Long, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+
+	/**
+	 * @param maxPixels total pixel count kept before the oldest images are evicted
+	 */
+	public SpriteCache(long maxPixels) {
+		this.maxPixels = maxPixels;
+	}
+
+	/**
+	 * Returns the cached image for an asset at a size, or {@code null} if it has
+	 * not been created or was evicted.
+	 *
+	 * @param id     asset id
+	 * @param width  target width in pixels, below 65536
+	 * @param height target height in pixels, below 65536
+	 */
+	public synchronized BufferedImage get(int id, int width, int height) {
+		return images.get(key(id, width, height));
+	}
+
+	/**
+	 * Stores the image for an asset at a size, evicting the least recently used
+	 * images if the budget is exceeded. The new image itself is always kept.
+	 *
+	 * @param id     asset id
+	 * @param width  target width in pixels, below 65536
+	 * @param height target height in pixels, below 65536
+	 * @param image  the image, {@code width} by {@code height} pixels
+	 */
+	public synchronized void put(int id, int width, int height, BufferedImage image) {
+		BufferedImage old = images.put(key(id, width, height), image);
+		if (old != null)
+			pixels -= (long) old.getWidth() * old.getHeight();
+		pixels += (long) image.getWidth() * image.getHeight();
+		Iterator<BufferedImage> it = images.values().iterator();
+		while (pixels > maxPixels && images.size() > 1) {
+			BufferedImage eldest = it.next();
+			pixels -= (long) eldest.getWidth() * eldest.getHeight();
+			it.remove();
+		}
+	}
+
+	/** Drops every cached image. */
+	public synchronized void clear() {
+		images.clear();
+		pixels = 0;
+	}
+
+	/** Returns the number of cached images. */
+	public synchronized int size() {
+		return images.size();
+	}
+
+	private static long key(int id, int width, int height) {
+		return ((long) id << 32) | ((long) width << 16) | height;
+	}
+}
@@ -2,15 +2,57 @@ package maze;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Image;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SpriteLoader {
 
+	/** Atlas id of the first player frame; add {@code direction * 3 + frame}. */
+	public static final int PLAYER_SPRITE = 0;
+
+	/** Atlas id of the first zombie frame; add {@code direction * 3 + frame}. */
+	public static final int ZOMBIE_SPRITE = 12;
+
+	/** Atlas id of the gem sprite. */
+	public static final int GEM_SPRITE = 24;
+
+	/** Atlas id of the first of four wall tile variants. */
+	public static final int WALL_TILE = 25;
+
+	/** Atlas id of the first of four floor tile variants. */
+	public static final int PATH_TILE = 29;
+
+	/** Number of images in the atlas. */
+	private static final int ASSET_COUNT = PATH_TILE + 4;
+
+	private static final String[] DIRECTIONS = { "up", "down", "left", "right" };
+	private static final String[] WALL_FILES = { "tile.png", "tile1.png", "tile2.png", "tile3.png" };
+	private static final String[] PATH_FILES = { "path.png", "path2.png", "path3.png", "path4.png" };
+
+	/**
+	 * Every game sprite and tile: procedural stand-ins until the files have been
+	 * loaded, then the real images.
+	 */
+	private static volatile TextureAtlas atlas;
+
+	/** Background load of the asset files; {@code null} until started. */
+	private static CompletableFuture<TextureAtlas> loading;
+
+	/** Default screen's configuration; {@code null} when headless or not yet looked up. */
+	private static GraphicsConfiguration screenConfig;
+	private static boolean screenConfigChecked = false;
+
 	/**
 	 * Set to true when any sprite file is missing. Checked by to decide whether to
 	 * generate procedural tiles.
@@ -19,31 +61,271 @@ public class SpriteLoader {
 
 	/**
 	 * Loads and scales an image from the given path. Returns a magenta placeholder
-	 * if the file is missing or unreadable.
+	 * if the file is missing or unreadable. Loaded images come from the
+	 * {@link AssetRegistry} and are shared, so must not be drawn into.
 	 *
 	 * @param path   file path relative to the working directory
 	 * @param width  target width in pixels
 	 * @param height target height in pixels
 	 */
 	public static BufferedImage load(String path, int width, int height) {
+		BufferedImage img = AssetRegistry.get().getScaled(path, width, height);
+		if (img == null) {
+			missingSprites = true;
+			return placeholder(width, height);
+		}
+		return img;
+	}
+
+	/**
+	 * Returns the shared atlas holding every sprite and tile at tile size. Look
+	 * images up with the {@code _SPRITE} and {@code _TILE} ids. Scaled draws
+	 * resample from the original files.
+	 *
+	 * <p>
+	 * Never blocks on file loading. If {@link #startLoading()} has not finished,
+	 * this returns procedural stand-ins, starting the load if needed; once it
+	 * finishes it returns the loaded atlas instead. Callers fetch the atlas on
+	 * every draw so they pick up the switch.
+	 */
+	public static TextureAtlas getAtlas() {
+		TextureAtlas a = atlas;
+		return a != null ? a : createStandInAtlas();
+	}
+
+	private static synchronized TextureAtlas createStandInAtlas() {
+		if (atlas == null) {
+			atlas = pack(new BufferedImage[ASSET_COUNT], new BufferedImage[ASSET_COUNT]);
+			startLoading();
+		}
+		return atlas;
+	}
+
+	/**
+	 * Returns the loaded atlas, waiting for the background load to finish.
+	 * Meant for tools and benchmarks that must not see the stand-ins.
+	 */
+	public static TextureAtlas awaitAtlas() {
+		return startLoading().join();
+	}
+
+	/**
+	 * Starts loading every sprite and tile in the background, if not already
+	 * started. An up-to-date {@link AssetPack} in the working directory is mapped
+	 * and used as is; otherwise the PNG files are decoded and scaled on a pool of
+	 * at most one thread per core. The pool exits once they are done.
+	 *
+	 * @return a future completing with the loaded atlas once {@link #getAtlas()}
+	 *         returns it
+	 */
+	public static synchronized CompletableFuture<TextureAtlas> startLoading() {
+		if (loading != null)
+			return loading;
+		int threads = Math.min(ASSET_COUNT, Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "asset-loader");
+			t.setDaemon(true);
+			return t;
+		});
+		loading = CompletableFuture.supplyAsync(SpriteLoader::readPack, pool)
+				.thenCompose(packed -> packed != null ? CompletableFuture.completedFuture(packed) : decodeFiles(pool))
+				.thenApply(loaded -> {
+					for (BufferedImage img : loaded[0])
+						if (img == null)
+							missingSprites = true;
+					return publish(pack(loaded[0], loaded[1]));
+				});
+		loading.whenComplete((a, e) -> pool.shutdown());
+		return loading;
+	}
+
+	/**
+	 * Decodes and scales every asset file on the given pool.
+	 *
+	 * @return a future of the tile-sized images as {@code [0]} and their originals
+	 *         as {@code [1]}, both indexed by atlas id with {@code null} where
+	 *         missing
+	 */
+	private static CompletableFuture<BufferedImage[][]> decodeFiles(ExecutorService pool) {
+		BufferedImage[] images = new BufferedImage[ASSET_COUNT], sources = new BufferedImage[ASSET_COUNT];
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[ASSET_COUNT];
+		for (int i = 0; i < ASSET_COUNT; i++) {
+			int id = i;
+			tasks[i] = CompletableFuture.runAsync(() -> {
+				sources[id] = AssetRegistry.get().getImage(assetFile(id));
+				images[id] = AssetRegistry.get().getScaled(assetFile(id), MazeMap.TILE_SIZE, MazeMap.TILE_SIZE);
+			}, pool);
+		}
+		return CompletableFuture.allOf(tasks).thenApply(done -> new BufferedImage[][] { images, sources });
+	}
+
+	/**
+	 * Reads the asset pack, if there is one at least as new as every asset file.
+	 * Packed images have no full-resolution originals, so zoomed draws resample
+	 * the tile-sized ones.
+	 *
+	 * @return the images as {@code [0]} and {@code null} originals as
+	 *         {@code [1]}, or {@code null} to fall back to the PNG files
+	 */
+	private static BufferedImage[][] readPack() {
+		Path file = Path.of(AssetPack.DEFAULT_FILE);
 		try {
-			File f = new File(path);
-			if (!f.exists()) {
-				missingSprites = true;
-				return placeholder(width, height);
+			if (!Files.exists(file))
+				return null;
+			FileTime built = Files.getLastModifiedTime(file);
+			for (int i = 0; i < ASSET_COUNT; i++) {
+				Path asset = Path.of(assetFile(i));
+				if (Files.exists(asset) && Files.getLastModifiedTime(asset).compareTo(built) > 0)
+					return null;
 			}
-			BufferedImage img = ImageIO.read(f);
-			if (img == null) {
-				missingSprites = true;
-				return placeholder(width, height);
-			}
-			return scale(img, width, height);
+			BufferedImage[] images = AssetPack.read(file, MazeMap.TILE_SIZE);
+			if (images.length != ASSET_COUNT)
+				return null;
+			return new BufferedImage[][] { images, new BufferedImage[ASSET_COUNT] };
 		} catch (IOException e) {
-			missingSprites = true;
-			return placeholder(width, height);
+			return null;
+		}
+	}
+
+	/**
+	 * Loads every atlas image from its file, on the calling thread. Used to build
+	 * the {@link AssetPack}.
+	 *
+	 * @param size tile size in pixels
+	 * @return images by atlas id, {@code null} where the file is missing or
+	 *         unreadable
+	 */
+	public static BufferedImage[] loadAssetImages(int size) {
+		BufferedImage[] images = new BufferedImage[ASSET_COUNT];
+		for (int i = 0; i < ASSET_COUNT; i++)
+			images[i] = AssetRegistry.get().getScaled(assetFile(i), size, size);
+		return images;
+	}
+
+	private static synchronized TextureAtlas publish(TextureAtlas loaded) {
+		atlas = loaded;
+		return loaded;
+	}
+
+	/** Returns the file holding the image with the given atlas id. */
+	private static String assetFile(int id) {
+		if (id >= PATH_TILE)
+			return PATH_FILES[id - PATH_TILE];
+		if (id >= WALL_TILE)
+			return WALL_FILES[id - WALL_TILE];
+		if (id == GEM_SPRITE)
+			return "gem.png";
+		String entity = id >= ZOMBIE_SPRITE ? "zombie" : "player";
+		int frame = id % ZOMBIE_SPRITE;
+		return entity + "_" + DIRECTIONS[frame / 3] + "_" + frame % 3 + ".png";
+	}
+
+	/**
+	 * Packs tile-sized images into an atlas, generating fallbacks for the missing
+	 * ones. A single missing tile switches every tile to procedural, so the
+	 * variants still match; a missing entity sprite leaves the tiles alone.
+	 *
+	 * @param images  loaded images by atlas id, {@code null} where missing;
+	 *                filled in
+	 * @param sources originals the images were scaled from
+	 */
+	private static TextureAtlas pack(BufferedImage[] images, BufferedImage[] sources) {
+		int s = MazeMap.TILE_SIZE;
+		for (int i = WALL_TILE; i < ASSET_COUNT; i++) {
+			if (images[i] == null) {
+				BufferedImage[][] tiles = new BufferedImage[2][4];
+				generateProceduralTiles(tiles, s);
+				for (int v = 0; v < 4; v++) {
+					images[WALL_TILE + v] = tiles[0][v];
+					images[PATH_TILE + v] = tiles[1][v];
+					sources[WALL_TILE + v] = sources[PATH_TILE + v] = null;
+				}
+				break;
+			}
+		}
+		for (int i = PLAYER_SPRITE; i < GEM_SPRITE; i++)
+			if (images[i] == null)
+				images[i] = generateCharFallback(s, i >= ZOMBIE_SPRITE);
+		if (images[GEM_SPRITE] == null)
+			images[GEM_SPRITE] = generateGemFallback(s);
+		return new TextureAtlas(images, sources);
+	}
+
+	/**
+	 * Loads the four wall and four floor tile variants, as {@code [0]} walls and
+	 * {@code [1]} floors. Falls back to procedural tiles for both sets if any file
+	 * is missing.
+	 *
+	 * @param size tile size in pixels
+	 */
+	public static BufferedImage[][] loadTiles(int size) {
+		BufferedImage[][] tiles = new BufferedImage[2][4];
+
+		boolean anyMissing = false;
+		for (int i = 0; i < 4; i++) {
+			tiles[0][i] = load(WALL_FILES[i], size, size);
+			tiles[1][i] = load(PATH_FILES[i], size, size);
+			if (missingSprites)
+				anyMissing = true;
+		}
+
+		if (anyMissing)
+			generateProceduralTiles(tiles, size);
+		return tiles;
+	}
+
+	/** Procedurally generates grey wall tiles and brown floor tiles. */
+	private static void generateProceduralTiles(BufferedImage[][] tiles, int size) {
+		Color[] wallColors = { new Color(90, 90, 100), new Color(85, 88, 98), new Color(95, 93, 105),
+				new Color(88, 86, 95) };
+		Color[] floorColors = { new Color(60, 45, 30), new Color(55, 42, 28), new Color(65, 48, 32),
+				new Color(58, 44, 29) };
+
+		for (int i = 0; i < 4; i++) {
+			tiles[0][i] = buildTile(wallColors[i], true, i, size);
+			tiles[1][i] = buildTile(floorColors[i], false, i, size);
 		}
 	}
 
+	/**
+	 * Builds one procedural tile image with noise pixels and a bevel (walls) or a
+	 * simple border (floors).
+	 */
+	private static BufferedImage buildTile(Color base, boolean isWall, int variant, int s) {
+		BufferedImage img = createCompatibleImage(s, s, Transparency.OPAQUE);
+		Graphics2D g = img.createGraphics();
+
+		g.setColor(base);
+		g.fillRect(0, 0, s, s);
+
+		Random r = new Random(variant * 31L);
+		for (int i = 0; i < 40; i++) {
+			int nx = r.nextInt(s), ny = r.nextInt(s), delta = r.nextInt(20) - 10;
+			g.setColor(clampColor(base.getRed() + delta, base.getGreen() + delta, base.getBlue() + delta));
+			g.fillRect(nx, ny, 2, 2);
+		}
+
+		if (isWall) {
+			g.setColor(base.brighter().brighter());
+			g.drawLine(0, 0, s - 1, 0);
+			g.drawLine(0, 0, 0, s - 1);
+			g.setColor(base.darker().darker());
+			g.drawLine(s - 1, 0, s - 1, s - 1);
+			g.drawLine(0, s - 1, s - 1, s - 1);
+		} else {
+			g.setColor(base.darker());
+			g.drawRect(0, 0, s - 1, s - 1);
+		}
+
+		g.dispose();
+		return img;
+	}
+
+	/** Returns a {@link Color} with each channel clamped to [0, 255]. */
+	private static Color clampColor(int r, int g, int b) {
+		return new Color(Math.max(0, Math.min(255, r)), Math.max(0, Math.min(255, g)), Math.max(0, Math.min(255, b)));
+	}
+
 	/**
 	 * Loads all player sprite frames as a array (4 directions × 3 walk frames).
 	 *
@@ -68,15 +350,9 @@ public class SpriteLoader {
 	 * @param size target size in pixels
 	 */
 	public static BufferedImage loadGemSprite(int size) {
-		File f = new File("gem.png");
-		if (f.exists()) {
-			try {
-				BufferedImage img = ImageIO.read(f);
-				if (img != null)
-					return scale(img, size, size);
-			} catch (IOException ignored) {
-			}
-		}
+		BufferedImage img = AssetRegistry.get().getScaled(assetFile(GEM_SPRITE), size, size);
+		if (img != null)
+			return img;
 		missingSprites = true;
 		return generateGemFallback(size);
 	}
@@ -86,20 +362,14 @@ public class SpriteLoader {
 	 * coloured fallback sprite.
 	 */
 	private static BufferedImage[][] loadFrames(String entity, int size) {
-		String[] dirs = { "up", "down", "left", "right" };
 		BufferedImage[][] frames = new BufferedImage[4][3];
 		for (int d = 0; d < 4; d++) {
 			for (int f = 0; f < 3; f++) {
-				File file = new File(entity + "_" + dirs[d] + "_" + f + ".png");
-				if (file.exists()) {
-					try {
-						BufferedImage img = ImageIO.read(file);
-						if (img != null) {
-							frames[d][f] = scale(img, size, size);
-							continue;
-						}
-					} catch (IOException ignored) {
-					}
+				BufferedImage img = AssetRegistry.get().getScaled(entity + "_" + DIRECTIONS[d] + "_" + f + ".png", size,
+						size);
+				if (img != null) {
+					frames[d][f] = img;
+					continue;
 				}
 				missingSprites = true;
 				frames[d][f] = generateCharFallback(size, entity.equals("zombie"));
@@ -113,7 +383,7 @@ public class SpriteLoader {
 	 * zombies.
 	 */
 	private static BufferedImage generateCharFallback(int size, boolean zombie) {
-		BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage img = createCompatibleImage(size, size, Transparency.TRANSLUCENT);
 		Graphics2D g = img.createGraphics();
 		g.setColor(zombie ? new Color(80, 140, 80) : new Color(60, 100, 200));
 		g.fillRoundRect(4, 4, size - 8, size - 8, 6, 6);
@@ -125,7 +395,7 @@ public class SpriteLoader {
 
 	/** Generates a gold diamond gem placeholder. */
 	private static BufferedImage generateGemFallback(int size) {
-		BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage img = createCompatibleImage(size, size, Transparency.TRANSLUCENT);
 		Graphics2D g = img.createGraphics();
 		int cx = size / 2, r = size / 2 - 4;
 		int[] xp = { cx, cx + r, cx, cx - r }, yp = { cx - r, cx, cx + r, cx };
@@ -155,22 +425,70 @@ public class SpriteLoader {
 		return new BufferedImage[] { f[0][0], f[1][0], f[2][0], f[3][0] };
 	}
 
-	/** Scales to the given dimensions using smooth interpolation. */
-	private static BufferedImage scale(BufferedImage src, int w, int h) {
-		Image scaled = src.getScaledInstance(w, h, Image.SCALE_SMOOTH);
-		BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-		Graphics2D g2 = out.createGraphics();
-		g2.drawImage(scaled, 0, 0, null);
-		g2.dispose();
+	/**
+	 * Creates an image in the default screen's native pixel format, so blitting it
+	 * stays on the accelerated pipeline. Falls back to a plain RGB or ARGB image
+	 * when headless.
+	 *
+	 * @param width        width in pixels
+	 * @param height       height in pixels
+	 * @param transparency a {@link Transparency} constant
+	 */
+	public static synchronized BufferedImage createCompatibleImage(int width, int height, int transparency) {
+		if (!screenConfigChecked) {
+			screenConfigChecked = true;
+			if (!GraphicsEnvironment.isHeadless())
+				screenConfig = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+						.getDefaultConfiguration();
+		}
+		if (screenConfig != null)
+			return screenConfig.createCompatibleImage(width, height, transparency);
+		return new BufferedImage(width, height,
+				transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+	}
+
+	/**
+	 * Scales to the given dimensions into a screen-compatible image that keeps the
+	 * source's transparency.
+	 *
+	 * <p>
+	 * Large reductions are done in successive bilinear halvings, which average
+	 * every source pixel like an area filter but run on the fast drawImage path;
+	 * a final bilinear step reaches the exact size. Enlargements use nearest
+	 * neighbour so pixel-art sprites stay sharp. Images already at the target size
+	 * are only converted.
+	 */
+	static BufferedImage scale(BufferedImage src, int w, int h) {
+		BufferedImage current = src;
+		int cw = src.getWidth(), ch = src.getHeight();
+		while (cw / 2 >= w && ch / 2 >= h) {
+			cw /= 2;
+			ch /= 2;
+			BufferedImage half = new BufferedImage(cw, ch, BufferedImage.TYPE_INT_ARGB);
+			drawScaled(current, half, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			current = half;
+		}
+		BufferedImage out = createCompatibleImage(w, h, src.getTransparency());
+		drawScaled(current, out, w > cw || h > ch ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+				: RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 		return out;
 	}
 
+	/** Draws the whole of {@code src} stretched over the whole of {@code dst}. */
+	private static void drawScaled(BufferedImage src, BufferedImage dst, Object interpolation) {
+		Graphics2D g2 = dst.createGraphics();
+		g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+		g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		g2.drawImage(src, 0, 0, dst.getWidth(), dst.getHeight(), null);
+		g2.dispose();
+	}
+
 	/**
 	 * Creates a solid magenta placeholder with a centred {@code '?'}. Makes missing
 	 * assets immediately obvious during development.
 	 */
 	private static BufferedImage placeholder(int w, int h) {
-		BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		BufferedImage img = createCompatibleImage(w, h, Transparency.OPAQUE);
 		Graphics2D g2 = img.createGraphics();
 		g2.setColor(Color.MAGENTA);
 		g2.fillRect(0, 0, w, h);
@@ -0,0 +1,170 @@
+package maze;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Packs many small images into one sheet and draws them by index.
+ *
+ * <p>
+ * Drawing every sprite and tile from the same image lets Java2D keep a single
+ * accelerated surface for all of them instead of one per frame. The sheet is
+ * created in the screen's native format. Images are packed into shelves,
+ * tallest first, with a one-pixel gutter so scaled draws never sample a
+ * neighbour.
+ *
+ * <p>
+ * When the graphics context is scaled, for zoom or a HiDPI screen, each image
+ * is instead drawn from a copy resampled to its exact on-screen size. The
+ * copies come from the full-resolution sources where given and are kept in a
+ * {@link SpriteCache}.
+ */
+public class TextureAtlas {
+
+	/** Widest sheet the packer will produce. */
+	private static final int MAX_SHEET_WIDTH = 1024;
+
+	private static final int GUTTER = 1;
+
+	/** Pixel budget for the rescaled copies, about 16 MB. */
+	private static final long MAX_SCALED_PIXELS = 1 << 22;
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	private final BufferedImage sheet;
+
+	/** Full-resolution original of each image, or {@code null} to rescale the packed one. */
+	private final BufferedImage[] sources;
+
+	private final SpriteCache scaled = new SpriteCache(MAX_SCALED_PIXELS);
+
+	/** Source rectangle of each image, four ints per index: x, y, width, height. */
+	private final int[] regions;
+
+	/**
+	 * Packs the given images into a new sheet.
+	 *
+	 * @param images the images to pack; each one's index in the array is its id
+	 */
+	public TextureAtlas(BufferedImage... images) {
+		this(images, null);
+	}
+
+	/**
+	 * Packs the given images into a new sheet, remembering the originals they were
+	 * scaled from for drawing at other sizes.
+	 *
+	 * @param images  the images to pack; each one's index in the array is its id
+	 * @param sources original of each image, indexed like {@code images}; the
+	 *                array or any entry may be {@code null}
+	 */
+	public TextureAtlas(BufferedImage[] images, BufferedImage[] sources) {
+		this.sources = sources != null ? sources.clone() : new BufferedImage[images.length];
+		regions = new int[images.length * 4];
+		Integer[] order = new Integer[images.length];
+		int totalArea = 0, widest = 0;
+		for (int i = 0; i < images.length; i++) {
+			order[i] = i;
+			totalArea += (images[i].getWidth() + GUTTER) * (images[i].getHeight() + GUTTER);
+			widest = Math.max(widest, images[i].getWidth() + GUTTER);
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> images[i].getHeight()).reversed());
+
+		// Aim for a roughly square sheet, never narrower than the widest image.
+		int sheetWidth = Math.max(widest, Math.min(MAX_SHEET_WIDTH, (int) Math.ceil(Math.sqrt(totalArea))));
+		int x = 0, y = 0, shelfHeight = 0, usedWidth = 0;
+		for (int i : order) {
+			int w = images[i].getWidth(), h = images[i].getHeight();
+			if (x + w > sheetWidth) {
+				x = 0;
+				y += shelfHeight + GUTTER;
+				shelfHeight = 0;
+			}
+			regions[i * 4] = x;
+			regions[i * 4 + 1] = y;
+			regions[i * 4 + 2] = w;
+			regions[i * 4 + 3] = h;
+			x += w + GUTTER;
+			shelfHeight = Math.max(shelfHeight, h);
+			usedWidth = Math.max(usedWidth, x);
+		}
+
+		sheet = SpriteLoader.createCompatibleImage(Math.max(1, usedWidth), Math.max(1, y + shelfHeight),
+				Transparency.TRANSLUCENT);
+		Graphics2D g = sheet.createGraphics();
+		for (int i = 0; i < images.length; i++)
+			g.drawImage(images[i], regions[i * 4], regions[i * 4 + 1], null);
+		g.dispose();
+	}
+
+	/**
+	 * Draws one packed image at its original size in user space.
+	 *
+	 * @param g  graphics context
+	 * @param id index of the image as passed to the constructor
+	 * @param x  left edge on screen
+	 * @param y  top edge on screen
+	 */
+	public void draw(Graphics g, int id, int x, int y) {
+		int sx = regions[id * 4], sy = regions[id * 4 + 1], w = regions[id * 4 + 2], h = regions[id * 4 + 3];
+		AffineTransform t = ((Graphics2D) g).getTransform();
+		int type = t.getType();
+		if ((type & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0
+				|| (type & AffineTransform.TYPE_MASK_SCALE) == 0) {
+			// Unscaled, or rotated and left to Java2D.
+			g.drawImage(sheet, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+			return;
+		}
+		drawScaled((Graphics2D) g, t, id, x, y, w, h);
+	}
+
+	/**
+	 * Draws an image scaled by the context's transform from a copy resampled to
+	 * the device pixels it covers. Edges are rounded the same way for every image,
+	 * so adjacent tiles still meet without gaps.
+	 */
+	private void drawScaled(Graphics2D g, AffineTransform t, int id, int x, int y, int w, int h) {
+		int x0 = (int) Math.round(x * t.getScaleX() + t.getTranslateX());
+		int y0 = (int) Math.round(y * t.getScaleY() + t.getTranslateY());
+		int dw = (int) Math.round((x + w) * t.getScaleX() + t.getTranslateX()) - x0;
+		int dh = (int) Math.round((y + h) * t.getScaleY() + t.getTranslateY()) - y0;
+		if (dw <= 0 || dh <= 0)
+			return;
+		BufferedImage img = scaled.get(id, dw, dh);
+		if (img == null) {
+			BufferedImage src = sources[id];
+			if (src == null)
+				src = sheet.getSubimage(regions[id * 4], regions[id * 4 + 1], w, h);
+			img = SpriteLoader.scale(src, dw, dh);
+			scaled.put(id, dw, dh, img);
+		}
+		g.setTransform(IDENTITY);
+		g.drawImage(img, x0, y0, null);
+		g.setTransform(t);
+	}
+
+	/** Returns the packed sheet. */
+	public BufferedImage getSheet() {
+		return sheet;
+	}
+
+	/** Returns the number of packed images. */
+	public int size() {
+		return regions.length / 4;
+	}
+
+	/** Returns the width of the image with the given id. */
+	public int getWidth(int id) {
+		return regions[id * 4 + 2];
+	}
+
+	/** Returns the height of the image with the given id. */
+	public int getHeight(int id) {
+		return regions[id * 4 + 3];
+	}
+}
@@ -0,0 +1,20 @@
+package maze;
+
+/**
+ * Receives a callback whenever a {@link MazeMap} tile is overwritten at
+ * runtime, so cached data derived from the layout can be repaired in place.
+ *
+ * @see MazeMap#addTileChangeListener(TileChangeListener)
+ */
+public interface TileChangeListener {
+
+	/**
+	 * Called after the tile at the given position has changed.
+	 *
+	 * @param row     row index
+	 * @param col     column index
+	 * @param oldTile the tile character before the change
+	 * @param newTile the tile character now stored
+	 */
+	void tileChanged(int row, int col, char oldTile, char newTile);
+}
@@ -1,14 +1,7 @@
 package maze;
 
-import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.awt.Rectangle;
 import java.util.Random;
 
 public class Zombie extends Entity {
@@ -16,7 +9,6 @@ public class Zombie extends Entity {
 	private static final float SPEED = 1.2f;
 	private static final float HUNT_SPEED = 1.6f;
 	private static final int DIRECTION_HOLD = 80;
-	private static final int HUNT_RECALC_INTERVAL = 30;
 	private static final int ANIM_FRAME_DURATION = 12;
 	private static final int NUM_FRAMES = 3;
 
@@ -27,30 +19,39 @@ public class Zombie extends Entity {
 	private int dirTimer;
 
 	private boolean huntMode = false;
-	private int huntRecalcTimer = 0;
 
-	/** BFS waypoints as grid coordinates. */
-	private final Deque<int[]> path = new ArrayDeque<>();
+	/** Tile currently being walked to in hunt mode; only valid while hasStep. */
+	private int stepRow, stepCol;
+	private boolean hasStep = false;
 
 	private AnimationState animState = AnimationState.WALK_DOWN;
 	private int animTick = 0;
 	private int animFrame = 0;
 
-	/**
-	 * Sprite frames: . Direction rows — 0 up, 1 down, 2 left, 3 right.
-	 */
-	private final BufferedImage[][] frames;
-
 	/**
 	 * @param x initial X position in pixels
 	 * @param y initial Y position in pixels
 	 */
 	public Zombie(float x, float y) {
+		this(x, y, new Random());
+	}
+
+	/**
+	 * Creates a zombie whose random walk is reproducible.
+	 *
+	 * @param x    initial X position in pixels
+	 * @param y    initial Y position in pixels
+	 * @param seed seed for this zombie's random walk
+	 */
+	public Zombie(float x, float y, long seed) {
+		this(x, y, new Random(seed));
+	}
+
+	private Zombie(float x, float y, Random rand) {
 		super(x, y);
-		rand = new Random();
+		this.rand = rand;
 		direction = rand.nextInt(4);
 		dirTimer = rand.nextInt(DIRECTION_HOLD);
-		frames = SpriteLoader.loadZombieFrames(MazeMap.TILE_SIZE);
 	}
 
 	/**
@@ -59,19 +60,23 @@ public class Zombie extends Entity {
 	 */
 	public void activateHuntMode() {
 		huntMode = true;
-		huntRecalcTimer = 0;
-		path.clear();
+		hasStep = false;
 	}
 
 	/**
 	 * Advances AI and animation one tick.
 	 *
+	 * <p>
+	 * Only writes this zombie's own state and only reads the map and the
+	 * snapshot, so zombies can be updated concurrently by {@link ZombieUpdater}.
+	 *
 	 * @param map    current maze
-	 * @param player the player entity
+	 * @param player the player's state for this tick
 	 */
-	public void update(MazeMap map, Player player) {
+	public void update(MazeMap map, PlayerSnapshot player) {
+		savePosition();
 		if (huntMode) {
-			updateHunt(map, player);
+			updateHunt(map);
 		} else if (hasLineOfSight(map, player)) {
 			updateChase(player);
 		} else {
@@ -116,12 +121,13 @@ public class Zombie extends Entity {
 
 	/**
 	 * Returns true if the player is in the same row or column, the zombie faces
-	 * them, and no wall is between them.
+	 * them, and no wall is between them. The wall test uses the map's precomputed
+	 * sight spans, so it costs the same at any distance.
 	 */
-	private boolean hasLineOfSight(MazeMap map, Player player) {
+	private boolean hasLineOfSight(MazeMap map, PlayerSnapshot player) {
 		int ts = MazeMap.TILE_SIZE;
 		int myRow = Math.round(y) / ts, myCol = Math.round(x) / ts;
-		int pRow = player.getPixelY() / ts, pCol = player.getPixelX() / ts;
+		int pRow = player.row(), pCol = player.col();
 
 		int fRow = 0, fCol = 0;
 		switch (direction) {
@@ -137,10 +143,7 @@ public class Zombie extends Entity {
 				return false;
 			if (!((fCol > 0 && diff > 0) || (fCol < 0 && diff < 0)))
 				return false;
-			for (int c = Math.min(myCol, pCol) + 1; c < Math.max(myCol, pCol); c++)
-				if (map.getTile(myRow, c) == '#')
-					return false;
-			return true;
+			return map.isRowClear(myRow, myCol, pCol);
 		}
 		if (myCol == pCol && fCol == 0) {
 			int diff = pRow - myRow;
@@ -148,19 +151,16 @@ public class Zombie extends Entity {
 				return false;
 			if (!((fRow > 0 && diff > 0) || (fRow < 0 && diff < 0)))
 				return false;
-			for (int r = Math.min(myRow, pRow) + 1; r < Math.max(myRow, pRow); r++)
-				if (map.getTile(r, myCol) == '#')
-					return false;
-			return true;
+			return map.isColumnClear(myCol, myRow, pRow);
 		}
 		return false;
 	}
 
 	/** Moves directly toward the player along the dominant axis. */
-	private void updateChase(Player player) {
+	private void updateChase(PlayerSnapshot player) {
 		float cx = x + MazeMap.TILE_SIZE / 2f, cy = y + MazeMap.TILE_SIZE / 2f;
-		float px = player.getPixelX() + MazeMap.TILE_SIZE / 2f;
-		float py = player.getPixelY() + MazeMap.TILE_SIZE / 2f;
+		float px = player.pixelX() + MazeMap.TILE_SIZE / 2f;
+		float py = player.pixelY() + MazeMap.TILE_SIZE / 2f;
 		float dx = 0, dy = 0;
 		if (Math.abs(cx - px) > Math.abs(cy - py))
 			dx = (px > cx) ? SPEED : -SPEED;
@@ -172,26 +172,30 @@ public class Zombie extends Entity {
 	}
 
 	/**
-	 * Follows the BFS path toward the player. Recalculates the path when the timer
-	 * expires or the path is empty.
+	 * Steps toward the player using the map's shared {@link FlowField}. A new step
+	 * is read from the field each time the previous target tile is reached, or
+	 * when that tile has been closed off since it was chosen. Falls back to a
+	 * random walk when the player cannot be reached.
 	 */
-	private void updateHunt(MazeMap map, Player player) {
+	private void updateHunt(MazeMap map) {
 		int ts = MazeMap.TILE_SIZE;
-		int myRow = Math.round(y) / ts, myCol = Math.round(x) / ts;
-		int pRow = player.getPixelY() / ts, pCol = player.getPixelX() / ts;
 
-		if (--huntRecalcTimer <= 0 || path.isEmpty()) {
-			bfsRecalculate(map, myRow, myCol, pRow, pCol);
-			huntRecalcTimer = HUNT_RECALC_INTERVAL;
-		}
+		if (hasStep && !map.isWalkable(stepRow, stepCol))
+			hasStep = false;
 
-		if (path.isEmpty()) {
-			updateRandomWalk(map);
-			return;
+		if (!hasStep) {
+			int myRow = Math.round(y) / ts, myCol = Math.round(x) / ts;
+			int dir = map.getFlowField().nextDirection(myRow, myCol);
+			if (dir < 0) {
+				updateRandomWalk(map);
+				return;
+			}
+			stepRow = myRow + FlowField.rowOffset(dir);
+			stepCol = myCol + FlowField.colOffset(dir);
+			hasStep = true;
 		}
 
-		int[] next = path.peek();
-		float targetX = next[1] * ts, targetY = next[0] * ts;
+		float targetX = stepCol * ts, targetY = stepRow * ts;
 		float diffX = targetX - x, diffY = targetY - y;
 		float dx = 0, dy = 0;
 
@@ -202,7 +206,7 @@ public class Zombie extends Entity {
 		else {
 			x = targetX;
 			y = targetY;
-			path.poll();
+			hasStep = false;
 			return;
 		}
 
@@ -211,60 +215,6 @@ public class Zombie extends Entity {
 		y += dy;
 	}
 
-	/**
-	 * Computes a BFS shortest path from start to goal and stores it in Does nothing
-	 * if no path exists.
-	 */
-	private void bfsRecalculate(MazeMap map, int startRow, int startCol, int goalRow, int goalCol) {
-		path.clear();
-		int rows = map.getRows(), cols = map.getCols();
-		int[][] parent = new int[rows * cols][2];
-		for (int[] p : parent)
-			Arrays.fill(p, -1);
-		boolean[] visited = new boolean[rows * cols];
-		Queue<int[]> queue = new LinkedList<>();
-		visited[startRow * cols + startCol] = true;
-		queue.add(new int[] { startRow, startCol });
-		boolean found = false;
-
-		outer: while (!queue.isEmpty()) {
-			int[] cur = queue.poll();
-			int cr = cur[0], cc = cur[1];
-			for (int[] nb : new int[][] { { cr - 1, cc }, { cr + 1, cc }, { cr, cc - 1 }, { cr, cc + 1 } }) {
-				int nr = nb[0], nc = nb[1];
-				if (nr < 0 || nr >= rows || nc < 0 || nc >= cols)
-					continue;
-				if (map.getTile(nr, nc) == '#')
-					continue;
-				int idx = nr * cols + nc;
-				if (visited[idx])
-					continue;
-				visited[idx] = true;
-				parent[idx][0] = cr;
-				parent[idx][1] = cc;
-				if (nr == goalRow && nc == goalCol) {
-					found = true;
-					break outer;
-				}
-				queue.add(new int[] { nr, nc });
-			}
-		}
-
-		if (!found)
-			return;
-
-		Deque<int[]> rev = new ArrayDeque<>();
-		int r = goalRow, c = goalCol;
-		while (!(r == startRow && c == startCol)) {
-			rev.push(new int[] { r, c });
-			int idx = r * cols + c;
-			r = parent[idx][0];
-			c = parent[idx][1];
-		}
-		while (!rev.isEmpty())
-			path.add(rev.pop());
-	}
-
 	/**
 	 * Attempts to move by (dx, dy); returns false if any corner hits a wall and
 	 * leaves position unchanged.
@@ -275,7 +225,7 @@ public class Zombie extends Entity {
 		int left = (int) (nx + inset) / ts, right = (int) (nx + ts - inset - 1) / ts;
 		int top = (int) (ny + inset) / ts, bottom = (int) (ny + ts - inset - 1) / ts;
 		for (int[] rc : new int[][] { { top, left }, { top, right }, { bottom, left }, { bottom, right } })
-			if (map.getTile(rc[0], rc[1]) == '#')
+			if (!map.isWalkable(rc[0], rc[1]))
 				return false;
 		x = nx;
 		y = ny;
@@ -295,8 +245,8 @@ public class Zombie extends Entity {
 	}
 
 	/**
-	 * Pushes this zombie one tile away from the player after a hit. Clears the BFS
-	 * path so hunt-mode resumes correctly.
+	 * Pushes this zombie one tile away from the player after a hit. Drops the
+	 * current hunt step so hunt-mode resumes from the new tile.
 	 *
 	 * @param player source of the push direction
 	 * @param map    used to verify the target tile is not a wall
@@ -310,27 +260,32 @@ public class Zombie extends Entity {
 		else
 			targetY = y + (pushY > 0 ? ts : -ts);
 		int col = Math.round(targetX) / ts, row = Math.round(targetY) / ts;
-		if (map.getTile(row, col) != '#') {
+		if (map.isWalkable(row, col)) {
 			x = targetX;
 			y = targetY;
 		}
-		path.clear();
-		huntRecalcTimer = 0;
+		hasStep = false;
+	}
+
+	/** Includes the 5 px hunt-mode aura while hunting. */
+	@Override
+	public Rectangle getDrawBounds(Rectangle out) {
+		int s = MazeMap.TILE_SIZE, m = huntMode ? 5 : 0;
+		out.setBounds(getPixelX() - m, getPixelY() - m, s + 2 * m + 1, s + 2 * m + 1);
+		return out;
 	}
 
 	/**
-	 * Draws the zombie. In hunt mode a pulsing red aura is shown behind the sprite
-	 * to warn the player.
+	 * Draws the zombie. In hunt mode a pulsing red aura, pre-rendered by the
+	 * {@link EffectCache}, is shown behind the sprite to warn the player.
 	 *
 	 * @param g graphics context
 	 */
 	@Override
 	public void draw(Graphics g) {
 		if (huntMode) {
-			int s = MazeMap.TILE_SIZE, px = getPixelX(), py = getPixelY();
-			int alpha = 40 + (int) (30 * Math.abs(Math.sin(animTick * 0.3)));
-			((Graphics2D) g).setColor(new Color(255, 0, 0, alpha));
-			((Graphics2D) g).fillOval(px - 5, py - 5, s + 10, s + 10);
+			int alpha = EffectCache.AURA_MIN_ALPHA + (int) (30 * Math.abs(Math.sin(animTick * 0.3)));
+			EffectCache.get().drawHuntAura(g, alpha, getPixelX(), getPixelY());
 		}
 
 		int dirIndex = switch (animState) {
@@ -340,6 +295,7 @@ public class Zombie extends Entity {
 		case WALK_RIGHT -> 3;
 		default -> 1;
 		};
-		g.drawImage(frames[dirIndex][animFrame], getPixelX(), getPixelY(), null);
+		SpriteLoader.getAtlas().draw(g, SpriteLoader.ZOMBIE_SPRITE + dirIndex * NUM_FRAMES + animFrame, getPixelX(),
+				getPixelY());
 	}
 }
\ No newline at end of file
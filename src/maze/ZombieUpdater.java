@@ -0,0 +1,85 @@
+package maze;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Advances every zombie on a level by one tick, splitting large crowds across a
+ * fork-join pool.
+ *
+ * <p>
+ * During the update phase the map and the {@link PlayerSnapshot} are read-only
+ * and each zombie writes only its own state, which becomes the next tick's
+ * state once the phase ends. No zombie reads another, so the result is the same
+ * as a sequential update whatever the thread count or split. Anything shared
+ * and lazily computed, such as the hunt {@link FlowField}, must be prepared
+ * before calling {@link #update}.
+ */
+public class ZombieUpdater {
+
+	/** Crowds smaller than this are updated on the calling thread. */
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	/** Zombies per leaf task once a crowd is split. */
+	private static final int CHUNK_SIZE = 64;
+
+	private final ForkJoinPool pool;
+
+	/** Creates an updater backed by the common fork-join pool. */
+	public ZombieUpdater() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool the pool large crowds are split across
+	 */
+	public ZombieUpdater(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Updates all zombies for one tick and returns once every one has finished.
+	 *
+	 * @param zombies the level's zombies
+	 * @param map     the current maze; must not be modified until this returns
+	 * @param player  the player state for this tick
+	 */
+	public void update(List<Zombie> zombies, MazeMap map, PlayerSnapshot player) {
+		if (zombies.size() < PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+			for (Zombie z : zombies)
+				z.update(map, player);
+			return;
+		}
+		pool.invoke(new UpdateTask(zombies, map, player, 0, zombies.size()));
+	}
+
+	/** Updates the zombies in {@code [from, to)}, halving until a chunk is small. */
+	private static final class UpdateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<Zombie> zombies;
+		private final transient MazeMap map;
+		private final PlayerSnapshot player;
+		private final int from, to;
+
+		UpdateTask(List<Zombie> zombies, MazeMap map, PlayerSnapshot player, int from, int to) {
+			this.zombies = zombies;
+			this.map = map;
+			this.player = player;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CHUNK_SIZE) {
+				for (int i = from; i < to; i++)
+					zombies.get(i).update(map, player);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new UpdateTask(zombies, map, player, from, mid), new UpdateTask(zombies, map, player, mid, to));
+		}
+	}
+}